@@ -0,0 +1,50 @@
+package algorithms;
+
+// restarts in batches whose size follows the improvement rate: a batch that improves halves the next one, so the
+// abandon bound of the constructions tightens often while progress is easy, a batch without improvement doubles it,
+// spending longer between synchronizations once improvements get rare
+// without a deadline the search stops when a batch of maxPerWorker restarts per worker brings nothing
+public final class AdaptiveRestarts implements SearchStrategy {
+    private final int minPerWorker;
+    private final int maxPerWorker;
+
+    public AdaptiveRestarts() {
+        this(25, 800);
+    }
+
+    public AdaptiveRestarts(int minPerWorker, int maxPerWorker) {
+        if (minPerWorker < 1) throw new IllegalArgumentException("minPerWorker must be at least 1, got " + minPerWorker);
+        if (maxPerWorker < minPerWorker) throw new IllegalArgumentException("maxPerWorker must be at least minPerWorker, got " + maxPerWorker);
+        this.minPerWorker = minPerWorker;
+        this.maxPerWorker = maxPerWorker;
+    }
+
+    public int getMinPerWorker() {
+        return minPerWorker;
+    }
+
+    public int getMaxPerWorker() {
+        return maxPerWorker;
+    }
+
+    @Override
+    public void search(SearchContext context) {
+        context.refineWarmStart(minPerWorker);
+        int batch = minPerWorker;
+        while (!context.finished()) {
+            int before = context.incumbentSize();
+            if (context.restarts(batch) < before) {
+                batch = Math.max(minPerWorker, batch >> 1);
+            } else if (batch == maxPerWorker && !context.hasDeadline()) {
+                break;
+            } else {
+                batch = (int) Math.min(maxPerWorker, 2L * batch);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AdaptiveRestarts(" + minPerWorker + ", " + maxPerWorker + ")";
+    }
+}
@@ -0,0 +1,213 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+import java.util.stream.IntStream;
+
+// timing harness for the separate stages of the pipeline, on seeded instances from PointsGenerator
+// works like a tiny jmh in average time mode: every iteration runs one stage for at least -time ms and reports ns/op,
+// the warmup iterations are thrown away, the results are folded into a sink so the jit can't drop the work
+// the plane grows with the number of points so the density only depends on the edge threshold
+//
+// the solve benchmark runs on the -solvePoints counts (1000 and 10000 by default), the others on the -points counts
+//
+// ant bench, or java -cp javabeans:jars/supportGUI.jar algorithms.Benchmarks -points 1000,10000 -thresholds 55 -benchmarks graph,greedy -strategy adaptive
+public class Benchmarks {
+    private static final String[] ALL_BENCHMARKS = {"graph", "greedy", "localSearch", "solve", "pointSet", "isValide"};
+    private static final int BASE_POINTS = 1000, BASE_WIDTH = 1400, BASE_HEIGHT = 900;
+
+    private static int[] pointCounts = {1000, 10000, 100000};
+    // the full solve takes seconds per op on big instances, so it has its own, smaller point counts
+    private static int[] solvePointCounts = {1000, 10000};
+    private static int[] thresholds = {40, 55, 80};
+    private static String[] benchmarks = ALL_BENCHMARKS;
+    private static int warmup = 3;
+    private static int iterations = 5;
+    private static long iterationMillis = 500;
+    private static long seed = 42;
+    private static int threads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    private static SearchStrategy strategy = new FixedRounds(200);
+
+    private static long sink;
+
+    public static void main(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                System.err.println("Option " + args[i] + " expects an argument but received none");
+                return;
+            }
+            try {
+                switch (args[i]) {
+                    case "-points" -> pointCounts = parseInts(args[i + 1]);
+                    case "-solvePoints" -> solvePointCounts = parseInts(args[i + 1]);
+                    case "-thresholds" -> thresholds = parseInts(args[i + 1]);
+                    case "-benchmarks" -> benchmarks = args[i + 1].split(",");
+                    case "-warmup" -> warmup = Integer.parseInt(args[i + 1]);
+                    case "-iterations" -> iterations = Integer.parseInt(args[i + 1]);
+                    case "-time" -> iterationMillis = Long.parseLong(args[i + 1]);
+                    case "-seed" -> seed = Long.parseLong(args[i + 1]);
+                    case "-threads" -> threads = Integer.parseInt(args[i + 1]);
+                    case "-strategy" -> {
+                        strategy = parseStrategy(args[i + 1]);
+                        if (strategy == null) {
+                            System.err.println("Unknown strategy " + args[i + 1] + ", expected rounds, adaptive or iterated");
+                            return;
+                        }
+                    }
+                    default -> {
+                        System.err.println("Unknown option " + args[i]);
+                        return;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid argument for option " + args[i] + ": " + args[i + 1]);
+                return;
+            }
+        }
+
+        System.out.printf("%-12s %8s %6s %14s %14s %14s%n", "benchmark", "points", "edge", "avg ns/op", "error", "min ns/op");
+        // a seeded solver, so the solve benchmark follows the same search on every build
+        try (Solver solver = new Solver(threads, 200, seed)) {
+            solver.setStrategy(strategy);
+            int[] allCounts = IntStream.concat(Arrays.stream(pointCounts), Arrays.stream(solvePointCounts)).distinct().sorted().toArray();
+            for (int pointCount: allCounts) {
+                for (int edgeThreshold: thresholds) {
+                    Instance instance = null;
+                    for (String benchmark: benchmarks) {
+                        int[] counts = benchmark.equals("solve") ? solvePointCounts : pointCounts;
+                        if (Arrays.stream(counts).noneMatch(c -> c == pointCount)) continue;
+                        if (instance == null) {
+                            instance = new Instance(pointCount, edgeThreshold, solver);
+                        }
+                        run(benchmark, instance);
+                    }
+                }
+            }
+        }
+        System.out.println("(checksum " + sink + ")"); // keeps the sink alive
+    }
+
+    private static void run(String benchmark, Instance instance) {
+        LongSupplier op = switch (benchmark) {
+            case "graph" -> () -> Graph.build(instance.xs, instance.ys, instance.xs.length, instance.edgeThreshold).targetCount();
+            case "greedy" -> () -> {
+                // the same ties every op, so every op does the same work
+                instance.engine.seed(instance.engineSeed);
+                return instance.engine.construct(instance.universe);
+            };
+            case "localSearch" -> () -> {
+                System.arraycopy(instance.construction, 0, instance.scratch, 0, instance.construction.length);
+                return instance.search.improve(instance.scratch, instance.construction.length);
+            };
+            case "solve" -> () -> instance.solver.solve(instance.graph).dominators.length;
+            case "pointSet" -> () -> {
+                PointSet set = instance.set;
+                set.copyFrom(instance.universe);
+                for (int i = 0; i < instance.construction.length; i++) {
+                    set.andNotNeighborhood(instance.graph, instance.construction[i]);
+                }
+                long sum = 0;
+                for (int v = set.nextSetBit(0); v != -1; v = set.nextSetBit(v + 1)) {
+                    sum += v;
+                }
+                return sum + set.size();
+            };
+            case "isValide" -> () -> DefaultTeam.isValide(instance.solution, instance.points, instance.edgeThreshold) ? 1 : 0;
+            default -> null;
+        };
+        if (op == null) {
+            System.err.println("Unknown benchmark " + benchmark + ", expected one of " + Arrays.toString(ALL_BENCHMARKS));
+            return;
+        }
+
+        for (int i = 0; i < warmup; i++) {
+            iteration(op);
+        }
+        double[] results = new double[iterations];
+        for (int i = 0; i < iterations; i++) {
+            results[i] = iteration(op);
+        }
+        double mean = Arrays.stream(results).average().orElse(0);
+        double variance = Arrays.stream(results).map(r -> (r - mean) * (r - mean)).sum() / Math.max(1, iterations - 1);
+        double min = Arrays.stream(results).min().orElse(0);
+        System.out.printf("%-12s %8d %6d %14.0f %14.0f %14.0f%n", benchmark, instance.xs.length, instance.edgeThreshold,
+                mean, Math.sqrt(variance), min);
+    }
+
+    // ns per op over one iteration
+    private static double iteration(LongSupplier op) {
+        long start = System.nanoTime();
+        long end = start + iterationMillis * 1_000_000;
+        long ops = 0, now;
+        do {
+            sink += op.getAsLong();
+            ops++;
+            now = System.nanoTime();
+        } while (now - end < 0);
+        return (double) (now - start) / ops;
+    }
+
+    private static SearchStrategy parseStrategy(String name) {
+        return switch (name) {
+            case "rounds" -> new FixedRounds(200);
+            case "adaptive" -> new AdaptiveRestarts();
+            case "iterated" -> new IteratedGreedy();
+            default -> null;
+        };
+    }
+
+    private static int[] parseInts(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    // everything the stages need, built once per (points, threshold) pair outside of the measurements
+    private static final class Instance {
+        final int edgeThreshold;
+        final Solver solver;
+        final ArrayList<java.awt.Point> points;
+        final int[] xs, ys;
+        final Graph graph;
+        final PointSet universe, set;
+        final GreedyEngine engine;
+        final long engineSeed;
+        final LocalSearch search;
+        final int[] construction, scratch;
+        final ArrayList<java.awt.Point> solution;
+
+        Instance(int pointCount, int edgeThreshold, Solver solver) {
+            this.edgeThreshold = edgeThreshold;
+            this.solver = solver;
+            double scale = Math.sqrt((double) pointCount / BASE_POINTS);
+            // a minimum distance of 1 keeps the points distinct
+            PointsFile.Points generated = new PointsGenerator(seed).generate(pointCount, (int) (BASE_WIDTH * scale),
+                    (int) (BASE_HEIGHT * scale), 1);
+            xs = generated.xs();
+            ys = generated.ys();
+            points = new ArrayList<>(xs.length);
+            for (int i = 0; i < xs.length; i++) {
+                points.add(new java.awt.Point(xs[i], ys[i]));
+            }
+            graph = Graph.build(xs, ys, xs.length, edgeThreshold);
+            universe = new PointSet(xs.length);
+            universe.fill();
+            set = new PointSet(xs.length);
+            engine = new GreedyEngine(graph);
+            // ties broken with a stream of the seed and the instance, like TiledSolver does per tile
+            engineSeed = Solver.mix(Solver.mix(seed, pointCount), edgeThreshold);
+            engine.seed(engineSeed);
+            search = new LocalSearch(graph);
+            int count = engine.construct(universe);
+            construction = new int[count];
+            for (int i = 0; i < count; i++) {
+                construction[i] = engine.dominator(i);
+            }
+            scratch = new int[count];
+            // the solution for isValide comes from the greedy alone, a full solve here would dominate the setup time
+            solution = new ArrayList<>(count);
+            for (int v: construction) {
+                solution.add(points.get(v));
+            }
+        }
+    }
+}
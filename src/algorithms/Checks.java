@@ -0,0 +1,366 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+// behavioural checks of the solver pieces, on seeded instances, so a change to them can be verified in a few seconds
+// every check compares against something independent (brute force, a second run, the heap graph, Validator) and throws
+// on the first mismatch, the run prints one line per check and exits with 1 if any of them failed
+//
+// ant check, or java -cp javabeans:jars/supportGUI.jar algorithms.Checks -seed 7 -checks exact,graphs
+public class Checks {
+    private static final String[] ALL_CHECKS = {"exact", "deterministic", "pointsFile", "cache", "incremental", "tiled", "graphs"};
+
+    private static long seed = 42;
+    private static String[] checks = ALL_CHECKS;
+
+    private interface Check {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                System.err.println("Option " + args[i] + " expects an argument but received none");
+                return;
+            }
+            try {
+                switch (args[i]) {
+                    case "-seed" -> seed = Long.parseLong(args[i + 1]);
+                    case "-checks" -> checks = args[i + 1].split(",");
+                    default -> {
+                        System.err.println("Unknown option " + args[i]);
+                        return;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid argument for option " + args[i] + ": " + args[i + 1]);
+                return;
+            }
+        }
+
+        int failed = 0;
+        for (String name: checks) {
+            Check check = switch (name) {
+                case "exact" -> Checks::exact;
+                case "deterministic" -> Checks::deterministic;
+                case "pointsFile" -> Checks::pointsFile;
+                case "cache" -> Checks::cache;
+                case "incremental" -> Checks::incremental;
+                case "tiled" -> Checks::tiled;
+                case "graphs" -> Checks::graphs;
+                default -> null;
+            };
+            if (check == null) {
+                System.err.println("Unknown check " + name + ", expected one of " + Arrays.toString(ALL_CHECKS));
+                failed++;
+                continue;
+            }
+            long start = System.nanoTime();
+            try {
+                check.run();
+                System.out.printf("%-14s ok     %6d ms%n", name, (System.nanoTime() - start) / 1_000_000);
+            } catch (Exception | AssertionError e) {
+                System.out.printf("%-14s FAILED %6d ms  %s%n", name, (System.nanoTime() - start) / 1_000_000, e);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) throw new AssertionError(message);
+    }
+
+    // a plane that grows with the number of points, so the density only depends on the threshold (like Benchmarks)
+    private static int width(int count) {
+        return (int) (1400 * Math.sqrt(count / 1000.0));
+    }
+
+    private static int height(int count) {
+        return (int) (900 * Math.sqrt(count / 1000.0));
+    }
+
+    private static PointsFile.Points instance(long seed, int count, int minDistance) {
+        return new PointsGenerator(seed).generate(count, width(count), height(count), minDistance);
+    }
+
+    private static void checkDominating(int[] xs, int[] ys, int[] dominators, int edgeThreshold, String what) {
+        int[] uncovered = Validator.uncovered(xs, ys, dominators, edgeThreshold);
+        check(uncovered.length == 0, what + ": " + uncovered.length + " points uncovered, e.g. " + (uncovered.length == 0 ? -1 : uncovered[0]));
+    }
+
+    // the branch and bound against all subsets, on graphs small enough to enumerate
+    private static void exact() {
+        SplittableRandom random = new SplittableRandom(Solver.mix(seed, 0));
+        ExactSolver exact = new ExactSolver();
+        for (int round = 0; round < 300; round++) {
+            int n = 1 + random.nextInt(16);
+            int[] xs = new int[n], ys = new int[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = random.nextInt(200);
+                ys[i] = random.nextInt(200);
+            }
+            int edgeThreshold = 20 + random.nextInt(80);
+            Graph graph = Graph.build(xs, ys, n, edgeThreshold);
+            exact.reset(graph);
+            int[] res = exact.solve(Solver.NO_DEADLINE);
+            check(exact.provenOptimal(), "round " + round + ": search aborted on " + n + " vertices");
+            checkDominating(xs, ys, res, edgeThreshold, "round " + round);
+            int optimum = bruteForce(graph);
+            check(res.length == optimum, "round " + round + ": " + res.length + " dominators, the optimum is " + optimum);
+            check(exact.lowerBound() == optimum, "round " + round + ": lower bound " + exact.lowerBound() + ", the optimum is " + optimum);
+        }
+    }
+
+    private static int bruteForce(Graph graph) {
+        int n = graph.vertexCount();
+        int[] neighborhood = new int[n];
+        for (int v = 0; v < n; v++) {
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                neighborhood[v] |= 1 << graph.target(i);
+            }
+        }
+        int all = (1 << n) - 1, best = n;
+        for (int subset = 0; subset <= all; subset++) {
+            int size = Integer.bitCount(subset);
+            if (size >= best) continue;
+            int covered = 0;
+            for (int rest = subset; rest != 0; rest &= rest - 1) {
+                covered |= neighborhood[Integer.numberOfTrailingZeros(rest)];
+            }
+            if (covered == all) {
+                best = size;
+            }
+        }
+        return best;
+    }
+
+    // a seeded solver gives the same set on every run with the same parallelism, so does a seeded TiledSolver
+    private static void deterministic() {
+        PointsFile.Points points = instance(seed, 3000, 1);
+        int[] first = null;
+        for (int run = 0; run < 2; run++) {
+            try (Solver solver = new Solver(3, 50, seed)) {
+                Graph graph = solver.buildGraph(points.xs(), points.ys(), points.count(), 55);
+                int[] res = solver.solve(graph).dominators;
+                checkDominating(points.xs(), points.ys(), res, 55, "solver run " + run);
+                if (first != null) {
+                    check(Arrays.equals(first, res), "two seeded solves differ: " + first.length + " vs " + res.length + " dominators");
+                }
+                first = res;
+            }
+        }
+        PointsFile.Points big = instance(seed + 1, 60000, 1);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            int[] a = new TiledSolver(pool, 5000, 4, seed).solve(big.xs(), big.ys(), 55);
+            int[] b = new TiledSolver(pool, 5000, 4, seed).solve(big.xs(), big.ys(), 55);
+            check(Arrays.equals(a, b), "two seeded tiled solves differ: " + a.length + " vs " + b.length + " dominators");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // both formats read back what was written, and the generator writes the same points it returns
+    private static void pointsFile() throws IOException {
+        Path directory = Files.createTempDirectory("checks");
+        try {
+            int[] xs = {0, -1, Integer.MAX_VALUE, Integer.MIN_VALUE, 42, 7}, ys = {0, 1, Integer.MIN_VALUE, Integer.MAX_VALUE, -42, 7};
+            PointsFile.Points generated = instance(seed, 20000, 1);
+            for (String extension: new String[] {".points", ".pointsb"}) {
+                Path file = directory.resolve("edge" + extension);
+                PointsFile.write(file, xs, ys);
+                PointsFile.Points read = PointsFile.read(file);
+                check(Arrays.equals(xs, read.xs()) && Arrays.equals(ys, read.ys()), extension + ": the extreme coordinates don't round trip");
+
+                file = directory.resolve("generated" + extension);
+                int written = new PointsGenerator(seed).generate(file, 20000, width(20000), height(20000), 1);
+                read = PointsFile.read(file);
+                check(written == generated.count() && Arrays.equals(generated.xs(), read.xs()) && Arrays.equals(generated.ys(), read.ys()),
+                        extension + ": the generated file differs from the generated points");
+            }
+            Path lone = directory.resolve("lone.points");
+            Files.writeString(lone, "1 2\n3 -");
+            try {
+                PointsFile.read(lone);
+                check(false, "a trailing lone '-' was accepted");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            try (Stream<Path> files = Files.list(directory)) {
+                for (Path file: files.toList()) {
+                    Files.delete(file);
+                }
+            }
+            Files.delete(directory);
+        }
+    }
+
+    // a shuffled copy of a solved instance is a hit with a valid set, the same key on other points is a miss
+    private static void cache() {
+        PointsFile.Points points = instance(seed, 2000, 1);
+        int[] xs = points.xs(), ys = points.ys();
+        SolutionCache cache = new SolutionCache(4);
+        try (Solver solver = new Solver(2, 50, seed)) {
+            DefaultTeam team = new DefaultTeam(solver);
+            team.setCache(cache);
+            int[] solved = team.calculDominatingSet(xs, ys, 55);
+
+            int[] order = new int[xs.length];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            SplittableRandom random = new SplittableRandom(Solver.mix(seed, 1));
+            for (int i = order.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1), t = order[i];
+                order[i] = order[j];
+                order[j] = t;
+            }
+            int[] shuffledXs = new int[xs.length], shuffledYs = new int[xs.length];
+            for (int i = 0; i < order.length; i++) {
+                shuffledXs[i] = xs[order[i]];
+                shuffledYs[i] = ys[order[i]];
+            }
+            long hits = cache.getHits();
+            int[] cached = team.calculDominatingSet(shuffledXs, shuffledYs, 55);
+            check(cache.getHits() == hits + 1, "the shuffled instance was not a hit");
+            check(cached.length == solved.length, "the hit has " + cached.length + " dominators, the solve had " + solved.length);
+            checkDominating(shuffledXs, shuffledYs, cached, 55, "shuffled hit");
+
+            // same key, but the last point moved away from everything: the cached set doesn't dominate it
+            SolutionCache.Key key = SolutionCache.key(xs, ys, xs.length, 55);
+            int[] movedXs = xs.clone();
+            movedXs[xs.length - 1] = -1_000_000;
+            check(cache.lookup(key, movedXs, ys) == null, "a colliding key returned a set that doesn't dominate");
+            check(cache.lookup(key, xs, ys) != null, "the entry was lost after a collision");
+        }
+    }
+
+    // random batches of inserts and deletes, the set has to dominate the live points after every one of them
+    private static void incremental() {
+        SplittableRandom random = new SplittableRandom(Solver.mix(seed, 2));
+        PointsFile.Points points = instance(seed, 2000, 0);
+        int width = width(points.count()), height = height(points.count());
+        IncrementalSolver incremental;
+        try (Solver solver = new Solver(2, 20, seed)) {
+            incremental = new IncrementalSolver(points.xs(), points.ys(), 55, solver);
+        }
+        int[] live = new int[points.count() + 4000];
+        int liveCount = points.count();
+        for (int i = 0; i < liveCount; i++) {
+            live[i] = i;
+        }
+        for (int batch = 0; batch < 60; batch++) {
+            if (random.nextBoolean()) {
+                int count = 1 + random.nextInt(60);
+                int[] xs = new int[count], ys = new int[count];
+                for (int i = 0; i < count; i++) {
+                    xs[i] = random.nextInt(width);
+                    ys[i] = random.nextInt(height);
+                }
+                for (int handle: incremental.insert(xs, ys)) {
+                    live[liveCount++] = handle;
+                }
+            } else {
+                int count = Math.min(liveCount, 1 + random.nextInt(60));
+                int[] handles = new int[count];
+                for (int i = 0; i < count; i++) {
+                    int k = random.nextInt(liveCount);
+                    handles[i] = live[k];
+                    live[k] = live[--liveCount];
+                }
+                incremental.delete(handles);
+            }
+            check(incremental.size() == liveCount, "batch " + batch + ": " + incremental.size() + " points, expected " + liveCount);
+            int[] xs = new int[liveCount], ys = new int[liveCount];
+            for (int i = 0; i < liveCount; i++) {
+                xs[i] = incremental.getX(live[i]);
+                ys[i] = incremental.getY(live[i]);
+            }
+            int[] dominators = incremental.dominators();
+            int[] domXs = new int[dominators.length], domYs = new int[dominators.length];
+            for (int i = 0; i < dominators.length; i++) {
+                domXs[i] = incremental.getX(dominators[i]);
+                domYs[i] = incremental.getY(dominators[i]);
+            }
+            int uncovered = Validator.uncovered(xs, ys, domXs, domYs, 55).length;
+            check(uncovered == 0, "batch " + batch + ": " + uncovered + " points uncovered");
+        }
+    }
+
+    // the stitched tiles dominate the whole instance, with and without a budget that runs out
+    private static void tiled() {
+        PointsFile.Points points = instance(seed, 80000, 1);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            TiledSolver solver = new TiledSolver(pool, 4000, 4, seed);
+            checkDominating(points.xs(), points.ys(), solver.solve(points.xs(), points.ys(), 55), 55, "tiled");
+            checkDominating(points.xs(), points.ys(), solver.solve(points.xs(), points.ys(), 55, Duration.ZERO), 55, "tiled out of time");
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // every storage and builder gives the same neighbor lists as Graph.build, and so do the component views and copies
+    private static void graphs() throws IOException {
+        PointsFile.Points points = instance(seed, 30000, 1);
+        int[] xs = points.xs(), ys = points.ys(), thresholds = {30, 55, 80};
+        Graph[] all = Graph.buildAll(xs, ys, xs.length, thresholds);
+        Path directory = Files.createTempDirectory("checks");
+        try {
+            for (int t = 0; t < thresholds.length; t++) {
+                Graph heap = Graph.build(xs, ys, xs.length, thresholds[t]);
+                sameGraph(heap, all[t], "buildAll at " + thresholds[t]);
+                for (Path storage: new Path[] {null, directory}) {
+                    Graph offHeap = OffHeapGraph.build(xs, ys, xs.length, thresholds[t], storage);
+                    try {
+                        String what = (storage == null ? "off-heap" : "mapped") + " at " + thresholds[t];
+                        sameGraph(heap, offHeap, what);
+                        int[][] components = heap.components();
+                        check(Arrays.deepEquals(components, offHeap.components()), what + ": the components differ");
+                        int[] heapIds = new int[xs.length], viewIds = new int[xs.length];
+                        for (int c = 0; c < components.length; c++) {
+                            sameGraph(heap.subgraph(components[c], heapIds), offHeap.component(components[c], viewIds), what + ", component " + c);
+                        }
+                    } finally {
+                        offHeap.release();
+                    }
+                }
+            }
+            try (Stream<Path> files = Files.list(directory)) {
+                check(files.count() == 0, "released mapped graphs left files behind");
+            }
+        } finally {
+            Files.delete(directory);
+        }
+    }
+
+    private static void sameGraph(Graph expected, Graph actual, String what) {
+        check(expected.vertexCount() == actual.vertexCount(), what + ": " + actual.vertexCount() + " vertices, expected " + expected.vertexCount());
+        check(expected.targetCount() == actual.targetCount(), what + ": " + actual.targetCount() + " neighbor entries, expected " + expected.targetCount());
+        for (int v = 0; v < expected.vertexCount(); v++) {
+            check(expected.degree(v) == actual.degree(v), what + ": vertex " + v + " has degree " + actual.degree(v) + ", expected " + expected.degree(v));
+            check(Arrays.equals(neighbors(expected, v), neighbors(actual, v)), what + ": the neighbors of vertex " + v + " differ");
+        }
+    }
+
+    // sorted, buildAll orders the lists by distance
+    private static int[] neighbors(Graph graph, int v) {
+        int[] res = new int[graph.degree(v)];
+        for (int i = graph.start(v), k = 0; k < res.length; i++, k++) {
+            res[k] = graph.target(i);
+        }
+        Arrays.sort(res);
+        return res;
+    }
+}
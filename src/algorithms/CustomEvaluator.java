@@ -13,14 +13,26 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.SecureRandom;
 import java.security.cert.X509Certificate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.KeyManager;
@@ -36,6 +48,8 @@ public class CustomEvaluator {
     private static AtomicLong result;
     private static AtomicInteger resultCount;
     private static int fails;
+    private static Path localFolder;
+    private static int evalThreads = 2;
 
     public static void main(String[] args) {
         for(int i = 0; i < args.length; ++i) {
@@ -57,6 +71,17 @@ public class CustomEvaluator {
                     case "-proxyPPTI":
                         proxyPPTI = true;
                         break;
+                    case "-dir":
+                        localFolder = Paths.get(args[i + 1]);
+                        break;
+                    case "-threads":
+                        try {
+                            evalThreads = Integer.parseInt(args[i + 1]);
+                            break;
+                        } catch (NumberFormatException e) {
+                            System.err.println("Invalid argument for option " + args[i] + ": number of threads expected");
+                            return;
+                        }
                     default:
                         System.err.println("Unknown option " + args[i]);
                         return;
@@ -66,7 +91,11 @@ public class CustomEvaluator {
             }
         }
 
-        evalFiles(proxyPPTI);
+        if (localFolder != null) {
+            evalLocalFiles(localFolder, evalThreads);
+        } else {
+            evalFiles(proxyPPTI);
+        }
     }
 
     protected static double getResult() {
@@ -161,17 +190,108 @@ public class CustomEvaluator {
             //});
         }
 
-        while (resultCount.get() < 100) {
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+        System.out.println("--------------------------------------");
+        System.out.println("");
+        System.out.println("Total fails: " + fails);
+        System.out.println("Average score: " + Double.longBitsToDouble(result.get()) / resultCount.get());
+    }
+
+    // offline mode: every inputN.points file of a local folder, evaluated by a bounded number of files at a time
+    // all the files share the solver pool, so the evaluator threads mostly wait on it, a few of them are enough to keep it busy
+    // a failing file is reported and counted but never blocks the others, the run always ends once every file was looked at
+    protected static void evalLocalFiles(Path folder, int threads) {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(folder)) {
+            files = listing.filter(p -> INPUT_FILE.matcher(p.getFileName().toString()).matches())
+                    .sorted(Comparator.comparingInt(CustomEvaluator::inputIndex))
+                    .toList();
+        } catch (IOException e) {
+            System.err.println("Unable to list " + folder + ": " + e);
+            return;
+        }
+        if (files.isEmpty()) {
+            System.err.println("No inputN.points file in " + folder);
+            return;
+        }
+
+        List<Callable<FileResult>> tasks = new ArrayList<>(files.size());
+        for (Path file: files) {
+            tasks.add(() -> evalLocalFile(file));
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads));
+        List<FileResult> results = new ArrayList<>(files.size());
+        try {
+            for (Future<FileResult> future: pool.invokeAll(tasks)) {
+                results.add(future.get()); // evalLocalFile catches everything itself
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            pool.shutdownNow();
         }
 
+        int localFails = 0;
+        double total = 0;
+        int scored = 0;
+        long[] millis = new long[results.size()];
+        for (int i = 0; i < results.size(); i++) {
+            FileResult result = results.get(i);
+            millis[i] = result.millis;
+            if (result.error != null) {
+                localFails++;
+                System.out.println(result.file.getFileName() + ": FAILED (" + result.error + ") in " + result.millis + " ms");
+            } else {
+                total += result.score;
+                scored++;
+                System.out.println(result.file.getFileName() + ": score " + result.score + " in " + result.millis + " ms");
+            }
+        }
+        Arrays.sort(millis);
         System.out.println("--------------------------------------");
         System.out.println("");
-        System.out.println("Total fails: " + fails);
-        System.out.println("Average score: " + Double.longBitsToDouble(result.get()) / resultCount.get());
+        System.out.println("Files: " + results.size() + ", total fails: " + localFails);
+        System.out.println("Average score: " + (scored == 0 ? Double.NaN : total / scored));
+        System.out.println("Time per file (ms): p50 " + percentile(millis, 50) + ", p90 " + percentile(millis, 90)
+                + ", p99 " + percentile(millis, 99) + ", max " + millis[millis.length - 1]);
+    }
+
+    private static final Pattern INPUT_FILE = Pattern.compile("input(\\d+)\\.points");
+
+    private static int inputIndex(Path file) {
+        Matcher matcher = INPUT_FILE.matcher(file.getFileName().toString());
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : Integer.MAX_VALUE;
+    }
+
+    // nearest rank percentile of sorted values
+    private static long percentile(long[] sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static FileResult evalLocalFile(Path file) {
+        long start = System.nanoTime();
+        try {
+            ArrayList<Point> points = new ArrayList<>();
+            for (String line: Files.readAllLines(file)) {
+                if (line.isBlank()) continue;
+                String[] coordinates = line.trim().split("\\s+");
+                points.add(new Point(Integer.parseInt(coordinates[0]), Integer.parseInt(coordinates[1])));
+            }
+            ArrayList<Point> pts = (new DefaultTeam()).calculDominatingSet(points, edgeThreshold);
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            int[] uncovered = Validator.uncovered(pts, points, edgeThreshold);
+            if (uncovered.length > 0) {
+                return new FileResult(file, 0, millis, "invalid dominating set, " + uncovered.length + " uncovered points, first " + points.get(uncovered[0]));
+            }
+            return new FileResult(file, Evaluator.score(pts), millis, null);
+        } catch (Exception e) {
+            return new FileResult(file, 0, (System.nanoTime() - start) / 1_000_000, e.toString());
+        }
+    }
+
+    private record FileResult(Path file, double score, long millis, String error) {
     }
 }
@@ -1,392 +1,321 @@
 package algorithms;
 
 import java.lang.ref.Reference;
+import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-final class Point {
-    public final int id;
+public class DefaultTeam {
+    private static Solver sharedSolver;
 
-    Point(int id) {
-        this.id = id;
-    }
+    private final Solver solver;
+    private int lowerBound;
+    private int[] lowerBounds = new int[0];
+    private SolutionCache cache;
+    private boolean refineCached;
 
-    @Override
-    public boolean equals(Object o) {
-        if (this == o) return true;
-        if (!(o instanceof Point point)) return false;
-        return id == point.id;
+    // the GUI and the evaluators just call new DefaultTeam(), those all share one lazily created solver
+    public DefaultTeam() {
+        this(sharedSolver());
     }
 
-    @Override
-    public int hashCode() {
-        return id;
+    public DefaultTeam(Solver solver) {
+        this.solver = solver;
     }
-}
 
-public class DefaultTeam {
-    private boolean[] edgeMap;
-    private HashMap<java.awt.Point, Point> pointMap;
-    private ArrayList<java.awt.Point> pointList;
-    private Point[] simplePointArr;
-    private int pointCount;
-    private int pointCountShift;
-
-    // optimized points set that contains a boolean array (since the amount of points is very limited)
-    // has nexts and prevs array that induce a linked list that speeds up iteration for more sparse sets
-    // for iteration heavy functions we try to use random access containers anyway
-    private final class PointSet extends AbstractSet<Point> {
-        private boolean[] points = new boolean[pointCount];
-        private int[] nexts = new int[pointCount];
-        private int[] prevs = new int[pointCount];
-        private int first = -1;
-        private int size = 0;
-        private boolean cacheReset = true;
-        private int hashCache = 0;
-
-        public PointSet() {
-            clear();
-        }
-
-        public PointSet(Collection<Point> collection) {
-            if (collection instanceof PointSet pointSet) {
-                size = pointSet.size;
-                first = pointSet.first;
-                System.arraycopy(pointSet.points, 0, points, 0, pointCount);
-                System.arraycopy(pointSet.nexts, 0, nexts, 0, pointCount);
-                System.arraycopy(pointSet.prevs, 0, prevs, 0, pointCount);
-            } else {
-                clear();
-                addAll(collection);
-            }
-        }
+    // null (the default) solves every call from scratch
+    // only searches without a budget or a target size are stored, so a short run never pins a worse set, but all calls can hit
+    public void setCache(SolutionCache cache) {
+        this.cache = cache;
+    }
 
-        @Override
-        public int size() {
-            return size;
-        }
+    public SolutionCache getCache() {
+        return cache;
+    }
 
-        @Override
-        public boolean isEmpty() {
-            return size == 0;
-        }
+    // when true a hit isn't returned as is, it seeds the search as a warm start (so the answer can only get smaller)
+    // and the result replaces it if it's better
+    public void setRefineCached(boolean refineCached) {
+        this.refineCached = refineCached;
+    }
 
-        @Override
-        public boolean contains(Object o) {
-            return points[((Point) o).id];
+    private static synchronized Solver sharedSolver() {
+        if (sharedSolver == null) {
+            sharedSolver = new Solver();
         }
+        return sharedSolver;
+    }
 
-        public boolean containsId(int id) {
-            return points[id];
-        }
+    // Main Method to Compute Dominating Set
+    // thin adapter over the primitive api, internally everything works on int ids
+    public ArrayList<java.awt.Point> calculDominatingSet(ArrayList<java.awt.Point> _points, int edgeThreshold) {
+        return solveAdapted(_points, edgeThreshold, Solver.NO_DEADLINE, 0, null);
+    }
 
-        @Override
-        public Iterator<Point> iterator() {
-            return new Iterator<>() {
-                int prev = -1;
-                int curId = first;
-                @Override
-                public boolean hasNext() {
-                    return curId != -1;
-                }
+    // warm start from a known set, e.g. the answer of a previous run or of a nearby threshold
+    // initial doesn't have to dominate, nor even to be made of the points: a point that moved is replaced by the
+    // nearest point closer than edgeThreshold (or dropped), then the set is repaired greedily and polished by the
+    // local search, and it's the incumbent and the starting point of the search from there on
+    public ArrayList<java.awt.Point> calculDominatingSet(ArrayList<java.awt.Point> _points, int edgeThreshold, ArrayList<java.awt.Point> initial) {
+        return solveAdapted(_points, edgeThreshold, Solver.NO_DEADLINE, 0, initial);
+    }
 
-                @Override
-                public Point next() {
-                    Point res = simplePointArr[curId];
-                    prev = curId;
-                    curId = nexts[curId];
-                    return res;
-                }
+    public ArrayList<java.awt.Point> calculDominatingSet(ArrayList<java.awt.Point> _points, int edgeThreshold, ArrayList<java.awt.Point> initial, Duration budget) {
+        return solveAdapted(_points, edgeThreshold, System.nanoTime() + budget.toNanos(), 0, initial);
+    }
 
-                @Override
-                public void remove() {
-                    removeId(prev); // in the previous submission this was broken but we didn't use this method
-                }
-            };
-        }
+    // anytime version: returns the best valid set found before the budget runs out, the graph build counts against it
+    public ArrayList<java.awt.Point> calculDominatingSet(ArrayList<java.awt.Point> _points, int edgeThreshold, Duration budget) {
+        return calculDominatingSet(_points, edgeThreshold, budget, 0);
+    }
 
-        @Override
-        public boolean add(Point point) {
-            int id = point.id;
-            boolean changed = !points[id];
-            points[id] = true;
-            if (changed) {
-                cacheReset = true;
-                size++;
-                if (first == -1) {
-                    first = id;
-                    return true;
-                }
-                if (first > id) {
-                    nexts[id] = first;
-                    prevs[first] = id;
-                    first = id;
-                    return true;
-                }
-                int prev = id-1;
-                while (prev >= 0 && !points[prev]) {
-                    prev--;
-                }
-                int next = nexts[prev];
-                nexts[prev] = id;
-                prevs[id] = prev;
-                nexts[id] = next;
-                if (next != -1) {
-                    prevs[next] = id;
-                }
-            }
-            return changed;
-        }
+    // same, but also stops as soon as a set of at most targetSize points is found
+    public ArrayList<java.awt.Point> calculDominatingSet(ArrayList<java.awt.Point> _points, int edgeThreshold, Duration budget, int targetSize) {
+        return solveAdapted(_points, edgeThreshold, System.nanoTime() + budget.toNanos(), targetSize, null);
+    }
 
-        public boolean removeId(int id) {
-            boolean changed = points[id];
-            points[id] = false;
-            if (changed) {
-                cacheReset = true;
-                size--;
-                int prev = prevs[id], next = nexts[id];
-                if (first == id) {
-                    first = next;
-                }
-                if (prev != -1) {
-                    nexts[prev] = nexts[id];
-                }
-                if (next != -1) {
-                    prevs[next] = prevs[id];
-                }
-            }
-            return changed;
-        }
+    // primitive entry point, e.g. for PointsFile: point i is (xs[i], ys[i]) and the result holds indices into xs/ys
+    // duplicated points are only kept once, the first index of each distinct point is the one that can show up
+    public int[] calculDominatingSet(int[] xs, int[] ys, int edgeThreshold) {
+        return solve(xs, ys, edgeThreshold, Solver.NO_DEADLINE, 0, null, null);
+    }
 
-        @Override
-        public boolean remove(Object o) {
-            return removeId(((Point) o).id);
+    // warm start from the points initial[i] (indices into xs/ys)
+    public int[] calculDominatingSet(int[] xs, int[] ys, int edgeThreshold, int[] initial) {
+        int[] initialXs = new int[initial.length], initialYs = new int[initial.length];
+        for (int i = 0; i < initial.length; i++) {
+            initialXs[i] = xs[initial[i]];
+            initialYs[i] = ys[initial[i]];
         }
+        return solve(xs, ys, edgeThreshold, Solver.NO_DEADLINE, 0, initialXs, initialYs);
+    }
 
-        @Override
-        public void clear() {
-            Arrays.fill(points, false);
-            Arrays.fill(nexts, -1);
-            Arrays.fill(prevs, -1);
-            first = -1;
-            size = 0;
-        }
+    public int[] calculDominatingSet(int[] xs, int[] ys, int edgeThreshold, Duration budget) {
+        return calculDominatingSet(xs, ys, edgeThreshold, budget, 0);
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (!(o instanceof PointSet pointSet)) return false;
-            if (size != pointSet.size) return false;
-            if (!cacheReset && !pointSet.cacheReset && hashCache != pointSet.hashCache) return false;
+    public int[] calculDominatingSet(int[] xs, int[] ys, int edgeThreshold, Duration budget, int targetSize) {
+        return solve(xs, ys, edgeThreshold, System.nanoTime() + budget.toNanos(), targetSize, null, null);
+    }
 
-            return Arrays.equals(points, pointSet.points);
+    // several thresholds on the same points, res[i] is the set for edgeThresholds[i]
+    // the graphs come from one neighbor search at the largest threshold (see Graph.buildAll), then the thresholds are
+    // solved by increasing value, each one warm started from the previous set, which dominates at any larger threshold too
+    // every solve uses the whole pool of the solver, getLowerBounds() has the bounds in the order of edgeThresholds
+    // with an off-heap graph storage every threshold gets a build of its own instead (see Solver.buildGraphs)
+    public ArrayList<ArrayList<java.awt.Point>> calculDominatingSets(ArrayList<java.awt.Point> _points, int[] edgeThresholds) {
+        int[] xs = new int[_points.size()], ys = new int[_points.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = _points.get(i).x;
+            ys[i] = _points.get(i).y;
         }
-
-        @Override
-        public int hashCode() {
-            if (cacheReset) {
-                hashCache = Arrays.hashCode(points);
-                cacheReset = false;
+        ArrayList<ArrayList<java.awt.Point>> res = new ArrayList<>(edgeThresholds.length);
+        for (int[] set: calculDominatingSets(xs, ys, edgeThresholds)) {
+            ArrayList<java.awt.Point> dominatingSet = new ArrayList<>(set.length);
+            for (int i: set) {
+                dominatingSet.add(_points.get(i));
             }
-            return hashCache;
+            res.add(dominatingSet);
         }
+        return res;
     }
 
-    // Main Method to Compute Dominating Set
-    public ArrayList<java.awt.Point> calculDominatingSet(ArrayList<java.awt.Point> _points, int edgeThreshold) {
-        // we convert the input points into simple classes that just contain an id for the sake of speed
-        pointCount = _points.size();
-        pointCountShift = 32 - Integer.numberOfLeadingZeros(pointCount);
-        pointMap = new HashMap<>();
-        pointList = new ArrayList<>();
-
-        // use shift instead of multiplication because the isEdge function is called a lot
-        edgeMap = new boolean[_points.size() << pointCountShift];
-        simplePointArr = new Point[_points.size()];
-        for (java.awt.Point p: _points) {
-            if (pointMap.containsKey(p)) continue;
-            pointList.add(p);
-            Point newPoint = new Point(pointList.size() - 1);
-            pointMap.put(p, newPoint);
-            simplePointArr[newPoint.id] = newPoint;
+    // primitive version, indices into xs/ys like calculDominatingSet(int[], int[], int)
+    public int[][] calculDominatingSets(int[] xs, int[] ys, int[] edgeThresholds) {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        for (int t: edgeThresholds) {
+            if (t < 1) throw new IllegalArgumentException("edge thresholds must be positive, got " + t);
         }
-        PointSet points = new PointSet();
-        points.addAll(pointMap.values());
-
-        for (Point p: points) {
-            for (Point q: points) {
-                edgeMap[(p.id << pointCountShift) + q.id] = pointList.get(p.id).distance(pointList.get(q.id)) < edgeThreshold;
+        int[] unique = firstOccurrences(xs, ys);
+        // without duplicates the points are used as they are, that's two arrays of the point count less on big instances
+        int[] uniqueXs = xs, uniqueYs = ys;
+        if (unique.length < xs.length) {
+            uniqueXs = new int[unique.length];
+            uniqueYs = new int[unique.length];
+            for (int i = 0; i < unique.length; i++) {
+                uniqueXs[i] = xs[unique[i]];
+                uniqueYs[i] = ys[unique[i]];
             }
         }
-        ArrayList<Point> res = gamble(new ArrayList<>(points), edgeThreshold);
-
-        return new ArrayList<>(res.stream().map(p -> pointList.get(p.id)).toList());
-    }
-    private boolean isEdge(Point p, Point q, int edgeThreshold) {
-        return edgeMap[(p.id << pointCountShift) + q.id];
-    }
-
-    // gambling is always the answer
-    private ArrayList<Point> gamble(ArrayList<Point> points, int edgeThreshold) {
-        ArrayList<Point> prev = points;
-        Object lock = new Object();
-        while (true) {
-            PointSet pointSet = new PointSet(prev);
-            int threadCount = Runtime.getRuntime().availableProcessors() - 1; // generously leave one processor alone
-            int itPerThread = 200;
-            ExecutorService pool = Executors.newFixedThreadPool(threadCount);
-            Semaphore semaphore = new Semaphore(0);
-            var next = new Object() { // otherwise it complains about effective final
-                private ArrayList<Point> next;
-            };
-            next.next = prev;
-            for (int i = 0; i < threadCount; i++) {
-                pool.execute(() -> {
-                    for (int j = 0; j < itPerThread; j++) {
-                        ArrayList<Point> res = calculateSet(pointSet, edgeThreshold);
-                        synchronized (lock) {
-                            if (res.size() < next.next.size()) {
-                                next.next = res;
-                            }
-                        }
-                        semaphore.release(1);
-                    }
-                });
-            }
-            try {
-                semaphore.acquire(threadCount * itPerThread);
-            } catch (InterruptedException e) {
-                throw new RuntimeException(e);
+        Graph[] graphs = solver.buildGraphs(uniqueXs, uniqueYs, unique.length, edgeThresholds);
+        Integer[] order = new Integer[edgeThresholds.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingInt(i -> edgeThresholds[i]));
+
+        int[][] res = new int[edgeThresholds.length][];
+        int[] bounds = new int[edgeThresholds.length];
+        int[] previous = null;
+        try {
+            for (int i: order) {
+                Solution solution = solver.solve(graphs[i], Solver.NO_DEADLINE, 0, previous);
+                graphs[i].release();
+                previous = solution.dominators;
+                bounds[i] = solution.lowerBound;
+                res[i] = new int[solution.dominators.length];
+                for (int k = 0; k < res[i].length; k++) {
+                    res[i][k] = unique[solution.dominators[k]];
+                }
             }
-            if (next.next.size() >= prev.size()) {
-                break;
+        } finally {
+            for (Graph graph: graphs) {
+                graph.release();
             }
-            prev = next.next;
-            System.out.println("Current best: " + prev.size());
         }
-        return prev;
+        lowerBounds = bounds;
+        return res;
     }
 
-    private ArrayList<Point> calculateSet(PointSet points, int edgeThreshold) {
-        ArrayList<Point> dominatingSet = new ArrayList<>();
-        PointSet uncovered = new PointSet(points);
-        Random random = new Random();
+    private ArrayList<java.awt.Point> solveAdapted(ArrayList<java.awt.Point> _points, int edgeThreshold, long deadline, int targetSize,
+                                                   ArrayList<java.awt.Point> initial) {
+        int[] xs = new int[_points.size()], ys = new int[_points.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = _points.get(i).x;
+            ys[i] = _points.get(i).y;
+        }
+        int[] initialXs = null, initialYs = null;
+        if (initial != null) {
+            initialXs = new int[initial.size()];
+            initialYs = new int[initial.size()];
+            for (int i = 0; i < initialXs.length; i++) {
+                initialXs[i] = initial.get(i).x;
+                initialYs[i] = initial.get(i).y;
+            }
+        }
+        int[] res = solve(xs, ys, edgeThreshold, deadline, targetSize, initialXs, initialYs);
+        ArrayList<java.awt.Point> dominatingSet = new ArrayList<>(res.length);
+        for (int i: res) {
+            dominatingSet.add(_points.get(i));
+        }
+        return dominatingSet;
+    }
 
-        Point[] uncoveredArr = new Point[uncovered.size]; // accelerate iteration
-        {
-            int i = -1;
-            for (Point p: uncovered) {
-                uncoveredArr[++i] = p;
+    // initialXs/initialYs are the coordinates of a warm start, or null
+    private int[] solve(int[] xs, int[] ys, int edgeThreshold, long deadline, int targetSize, int[] initialXs, int[] initialYs) {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        int[] unique = firstOccurrences(xs, ys);
+        // without duplicates the points are used as they are, that's two arrays of the point count less on big instances
+        int[] uniqueXs = xs, uniqueYs = ys;
+        if (unique.length < xs.length) {
+            uniqueXs = new int[unique.length];
+            uniqueYs = new int[unique.length];
+            for (int i = 0; i < unique.length; i++) {
+                uniqueXs[i] = xs[unique[i]];
+                uniqueYs[i] = ys[unique[i]];
             }
         }
-        ArrayList<Point>[] neighbors = new ArrayList[pointCount]; // neighbor list structure
-        for (Point p : uncoveredArr) {
-            ArrayList<Point> neighborsP = new ArrayList<>();
-            for (Point q : uncoveredArr) {
-                if (isEdge(p, q, edgeThreshold)) {
-                    neighborsP.add(q);
-                }
+        SolutionCache cache = this.cache;
+        SolutionCache.Key key = null;
+        Solution solution = null;
+        int[] initial = initialXs == null ? null : nearestPoints(uniqueXs, uniqueYs, initialXs, initialYs, edgeThreshold);
+        if (cache != null) {
+            key = SolutionCache.key(uniqueXs, uniqueYs, unique.length, edgeThreshold);
+            Solution cached = cache.lookup(key, uniqueXs, uniqueYs);
+            if (cached != null && !refineCached) {
+                solution = cached;
+            } else if (cached != null && initial == null) {
+                initial = cached.dominators;
             }
-            neighbors[p.id] = neighborsP;
         }
-
-        // Improved Greedy Algorithm with Weighted Selection
-        while (!uncovered.isEmpty()) {
-            int bestScore = Integer.MIN_VALUE;
-            ArrayList<Point> bestPoints = new ArrayList<>();
-
-            for (Point candidate : uncovered) {
-
-                // Weighted score: prioritize high coverage and low overlap
-                int score = countNewCoverage(neighbors, candidate, uncovered, edgeThreshold);
-                if (score >= bestScore) {
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestPoints.clear();
-                    }
-                    bestPoints.add(candidate);
-                }
+        if (solution == null) {
+            Graph graph = solver.buildGraph(uniqueXs, uniqueYs, unique.length, edgeThreshold);
+            try {
+                solution = solver.solve(graph, deadline, targetSize, initial);
+            } finally {
+                graph.release();
             }
-
-            if (!bestPoints.isEmpty()) {
-                Point bestPoint = bestPoints.get(random.nextInt(bestPoints.size()));
-                dominatingSet.add(bestPoint);
-                updateUncovered(bestPoint, uncovered, edgeThreshold);
+            if (cache != null && deadline == Solver.NO_DEADLINE && targetSize == 0) {
+                cache.put(key, uniqueXs, uniqueYs, solution);
             }
         }
-
-        // Post-processing with Local Search
-        //refineDominatingSet(dominatingSet, points, edgeThreshold);
-
-        return dominatingSet;
+        lowerBound = solution.lowerBound;
+        int[] res = new int[solution.dominators.length];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = unique[solution.dominators[i]];
+        }
+        return res;
     }
 
-    // Count new vertices covered by adding candidate to the Dominating Set
-    private int countNewCoverage(ArrayList<Point>[] neighbors, Point candidate, PointSet uncovered, int edgeThreshold) {
+    // for every (initialXs[i], initialYs[i]) the id of the nearest point closer than edgeThreshold (the point itself
+    // when it's there), the ones without any are left out
+    private static int[] nearestPoints(int[] xs, int[] ys, int[] initialXs, int[] initialYs, int edgeThreshold) {
+        SpatialGrid grid = new SpatialGrid(xs, ys, xs.length, edgeThreshold);
+        long limit = (long) edgeThreshold * edgeThreshold;
+        int[] res = new int[initialXs.length];
         int count = 0;
-        for (Point p : neighbors[candidate.id]) {
-            if (uncovered.containsId(p.id)) { // if we happened to remove p, ignore it
-                count++;
+        for (int i = 0; i < initialXs.length; i++) {
+            int x = initialXs[i], y = initialYs[i];
+            // the point may lie outside of the bounding box, like in Validator
+            long cx = Math.floorDiv((long) x - grid.minX, grid.cellSize), cy = Math.floorDiv((long) y - grid.minY, grid.cellSize);
+            int nearest = -1;
+            long nearestDistance = limit;
+            for (long ny = Math.max(0, cy - 1); ny <= Math.min(grid.rows - 1, cy + 1); ny++) {
+                for (long nx = Math.max(0, cx - 1); nx <= Math.min(grid.cols - 1, cx + 1); nx++) {
+                    int c = (int) (nx + ny * grid.cols);
+                    for (int k = grid.cellStart[c]; k < grid.cellStart[c + 1]; k++) {
+                        int p = grid.cellPoints[k];
+                        long dx = (long) xs[p] - x, dy = (long) ys[p] - y;
+                        if (dx * dx + dy * dy < nearestDistance) {
+                            nearestDistance = dx * dx + dy * dy;
+                            nearest = p;
+                        }
+                    }
+                }
+            }
+            if (nearest != -1) {
+                res[count++] = nearest;
             }
         }
-        return count;
+        return Arrays.copyOf(res, count);
     }
 
-    // exact same as above
-    // Count overlap: how many already covered points the candidate dominates
-    private int countOverlap(Point candidate, PointSet uncovered, int edgeThreshold) {
+    // index of the first occurrence of every distinct point, in input order
+    // open addressing over the packed coordinates, so no boxing at all
+    private static int[] firstOccurrences(int[] xs, int[] ys) {
+        int capacity = Integer.highestOneBit(Math.max(2, xs.length) * 2 - 1) << 1;
+        int shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        long[] keys = new long[capacity];
+        boolean[] used = new boolean[capacity];
+        int[] res = new int[xs.length];
         int count = 0;
-        for (Point p : uncovered) {
-            if (isEdge(candidate, p, edgeThreshold)) {
-                count++;
+        for (int i = 0; i < xs.length; i++) {
+            long key = ((long) xs[i] << 32) | (ys[i] & 0xffffffffL);
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (used[slot] && keys[slot] != key) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (!used[slot]) {
+                used[slot] = true;
+                keys[slot] = key;
+                res[count++] = i;
             }
         }
-        return count;
+        return Arrays.copyOf(res, count);
     }
 
-    // Update uncovered set after adding a vertex to the Dominating Set
-    private void updateUncovered(Point dominator, Set<Point> uncovered, int edgeThreshold) {
-        uncovered.removeIf(p -> isEdge(dominator, p, edgeThreshold));
+    // lower bound on the size of any dominating set of the last instance, to see how far off the heuristic is
+    public int getLowerBound() {
+        return lowerBound;
     }
 
-    // Refine Dominating Set using Local Search
-    private void refineDominatingSet(ArrayList<Point> dominatingSet, ArrayList<Point> points, int edgeThreshold) {
-        for (int i = 0; i < dominatingSet.size(); i++) {
-            Point toReplace = dominatingSet.get(i);
-
-            for (Point candidate : points) {
-                if (!dominatingSet.contains(candidate) && 
-                    canReplacePoint(toReplace, candidate, dominatingSet, points, edgeThreshold)) {
-                    dominatingSet.set(i, candidate);
-                    break;
-                }
-            }
-        }
+    // the lower bounds of the last calculDominatingSets, one per threshold
+    public int[] getLowerBounds() {
+        return lowerBounds.clone();
     }
 
-    // Check if a point can replace another in the Dominating Set
-    private boolean canReplacePoint(Point toReplace, Point candidate, ArrayList<Point> dominatingSet, ArrayList<Point> points, int edgeThreshold) {
-        PointSet coverWithCandidate = new PointSet();
-        
-        for (Point dominator : dominatingSet) {
-            Point effective = dominator.equals(toReplace) ? candidate : dominator;
-            for (Point p : points) {
-                if (isEdge(effective, p, edgeThreshold)) {
-                    coverWithCandidate.add(p);
-                }
-            }
-        }
+    // Optimized Random Points Generator Logic Integration
+    public ArrayList<java.awt.Point> generateRandomPoints(int numberOfPoints, int maxWidth, int maxHeight, int radius, int edgeThreshold) {
+        return generateRandomPoints(numberOfPoints, maxWidth, maxHeight, radius, edgeThreshold, new Random());
+    }
 
-        return coverWithCandidate.containsAll(points);
+    // same with a fixed seed, so benchmarks and bug reports can reproduce the instance
+    public ArrayList<java.awt.Point> generateRandomPoints(int numberOfPoints, int maxWidth, int maxHeight, int radius, int edgeThreshold, long seed) {
+        return generateRandomPoints(numberOfPoints, maxWidth, maxHeight, radius, edgeThreshold, new Random(seed));
     }
 
-    // Optimized Random Points Generator Logic Integration
-    public ArrayList<java.awt.Point> generateRandomPoints(int numberOfPoints, int maxWidth, int maxHeight, int radius, int edgeThreshold) {
+    private ArrayList<java.awt.Point> generateRandomPoints(int numberOfPoints, int maxWidth, int maxHeight, int radius, int edgeThreshold, Random generator) {
         ArrayList<java.awt.Point> points = new ArrayList<>();
-        Random generator = new Random();
 
         int gridSize = edgeThreshold;
         int cols = (maxWidth + gridSize - 1) / gridSize;
@@ -447,18 +376,9 @@ public class DefaultTeam {
         grid.get(gridIndex).add(p);
     }
 
+    // same strict distance as the graph, see Validator
     public static boolean isValide(ArrayList<java.awt.Point> domSet, ArrayList<java.awt.Point> points, int edgeThreshold) {
-        for (java.awt.Point p : points) {
-            boolean isDom = false;
-            for (java.awt.Point q : domSet) {
-                if (p.distance(q) <= edgeThreshold) {
-                    isDom = true;
-                    break;
-                }
-            }
-            if (!isDom) return false;
-        }
-        return true;
+        return Validator.isValid(domSet, points, edgeThreshold);
     }
 
     public static double score(ArrayList<java.awt.Point> inpts) {
@@ -473,11 +393,19 @@ public class DefaultTeam {
         int radius = 140;
         int edgeThreshold = 55;
 
-        DefaultTeam team = new DefaultTeam();
-        for (int i = 0; i < numberOfTests; i++) {
-            ArrayList<java.awt.Point> points = team.generateRandomPoints(numberOfPoints, maxWidth, maxHeight, radius, edgeThreshold);
-            ArrayList<java.awt.Point> dominatingSet = team.calculDominatingSet(points, edgeThreshold);
-            System.out.println("Test " + (i + 1) + " completed. Dominating set size: " + dominatingSet.size());
+        try (Solver solver = new Solver()) {
+            solver.setListener(new SolverListener() {
+                @Override
+                public void improved(int size, long elapsedNanos) {
+                    System.out.println("Current best: " + size);
+                }
+            });
+            DefaultTeam team = new DefaultTeam(solver);
+            for (int i = 0; i < numberOfTests; i++) {
+                ArrayList<java.awt.Point> points = team.generateRandomPoints(numberOfPoints, maxWidth, maxHeight, radius, edgeThreshold);
+                ArrayList<java.awt.Point> dominatingSet = team.calculDominatingSet(points, edgeThreshold);
+                System.out.println("Test " + (i + 1) + " completed. Dominating set size: " + dominatingSet.size() + ", lower bound: " + team.getLowerBound());
+            }
         }
     }
 }
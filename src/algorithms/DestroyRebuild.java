@@ -0,0 +1,104 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// one iterated greedy step: drops the dominators closest (in hops) to a random dominator, covers what they leave
+// uncovered again with the greedy (any vertex may be picked), then polishes the whole set with the local search
+// removing a spatially close group gives the rebuild the chance to cover that region with fewer dominators
+// one instance per worker thread, shares the worker's engine and local search
+final class DestroyRebuild {
+    private final Graph graph;
+    private final GreedyEngine engine;
+    private final LocalSearch search;
+    private final PointSet isDominator;
+    private final PointSet covered;
+    private final PointSet targets;
+    private final int[] queue;
+    private final int[] visited;
+    private int stamp;
+    private SplittableRandom random = new SplittableRandom();
+
+    DestroyRebuild(Graph graph, GreedyEngine engine, LocalSearch search) {
+        this.graph = graph;
+        this.engine = engine;
+        this.search = search;
+        int n = graph.vertexCount();
+        isDominator = new PointSet(n);
+        covered = new PointSet(n);
+        targets = new PointSet(n);
+        queue = new int[n];
+        visited = new int[n];
+    }
+
+    // queues w unless it was met already, returns the new tail
+    private int enqueue(int w, int tail) {
+        if (visited[w] != stamp) {
+            visited[w] = stamp;
+            queue[tail++] = w;
+        }
+        return tail;
+    }
+
+    void seed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    // perturbs the dominating set in set[0 .. count) into out and returns its size, set itself is left alone
+    // about fraction of the dominators are destroyed (at least one), and the rebuild gives up (returning -1)
+    // as soon as the result can't be smaller than bound anymore, or at the deadline
+    int step(int[] set, int count, int[] out, double fraction, int bound, long deadline) {
+        if (count == 0) return 0;
+        isDominator.clear();
+        for (int i = 0; i < count; i++) {
+            isDominator.add(set[i]);
+        }
+
+        // breadth first from a random dominator, the first ones met are destroyed
+        int toRemove = Math.max(1, (int) (count * fraction));
+        if (++stamp == 0) {
+            Arrays.fill(visited, 0);
+            stamp = 1;
+        }
+        int head = 0, tail = 0;
+        queue[tail++] = set[random.nextInt(count)];
+        visited[queue[0]] = stamp;
+        while (head < tail && toRemove > 0) {
+            int v = queue[head++];
+            if (isDominator.remove(v)) {
+                toRemove--;
+            }
+            // the arrays of a heap graph are read directly, see Graph.heapOffsets
+            int[] offsets = graph.heapOffsets;
+            if (offsets != null) {
+                int[] targets = graph.heapTargets;
+                for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                    tail = enqueue(targets[i], tail);
+                }
+            } else {
+                for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                    tail = enqueue(graph.target(i), tail);
+                }
+            }
+        }
+
+        int kept = 0;
+        covered.clear();
+        for (int i = 0; i < count; i++) {
+            if (isDominator.contains(set[i])) {
+                out[kept++] = set[i];
+                covered.orNeighborhood(graph, set[i]);
+            }
+        }
+        targets.fill();
+        targets.andNot(covered);
+        int added = engine.complete(targets, bound - kept, deadline);
+        if (added == -1) {
+            return -1;
+        }
+        for (int i = 0; i < added; i++) {
+            out[kept++] = engine.dominator(i);
+        }
+        return search.improve(out, kept);
+    }
+}
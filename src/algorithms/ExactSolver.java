@@ -0,0 +1,148 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// branch and bound for small graphs (at most 64 vertices, the closed neighborhoods are long bitmasks)
+// always branches on the uncovered vertex with the fewest neighbors, trying its neighbors by decreasing gain,
+// and prunes with the bound "the k largest gains have to add up to the number of uncovered vertices"
+// the search gives up after NODE_LIMIT nodes or at the deadline, the best set found is still valid then
+final class ExactSolver {
+    static final int MAX_VERTICES = 64;
+    private static final long NODE_LIMIT = 2_000_000;
+    // only look at the clock every 4096 nodes
+    private static final long DEADLINE_CHECK_MASK = 4095;
+
+    private int n;
+    private final long[] neighborhood = new long[MAX_VERTICES];
+    private final int[] chosen = new int[MAX_VERTICES];
+    private final int[][] candidates = new int[MAX_VERTICES][MAX_VERTICES];
+    private final int[][] gains = new int[MAX_VERTICES][MAX_VERTICES];
+    private final int[] boundGains = new int[MAX_VERTICES];
+    private int[] best;
+    private long nodes;
+    private long deadline;
+    private boolean aborted;
+    private int rootBound;
+
+    // the scratch space is allocated once, reset() loads the graph, so one instance solves any number of small components
+    ExactSolver() {
+    }
+
+    void reset(Graph graph) {
+        int count = graph.vertexCount();
+        if (count > MAX_VERTICES) throw new IllegalArgumentException("at most " + MAX_VERTICES + " vertices, got " + count);
+        n = count;
+        for (int v = 0; v < n; v++) {
+            neighborhood[v] = 0;
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                neighborhood[v] |= 1L << graph.target(i);
+            }
+        }
+    }
+
+    int[] solve(long deadline) {
+        this.deadline = deadline;
+        nodes = 0;
+        aborted = false;
+        long all = n == 64 ? -1L : (1L << n) - 1;
+        best = greedy(all);
+        rootBound = bound(all);
+        search(all, 0);
+        return best;
+    }
+
+    // true if the last solve finished the search, so its result is optimal
+    boolean provenOptimal() {
+        return !aborted;
+    }
+
+    // the best known lower bound after the last solve
+    int lowerBound() {
+        return aborted ? Math.min(rootBound, best.length) : best.length;
+    }
+
+    private void search(long uncovered, int depth) {
+        if (uncovered == 0) {
+            if (depth < best.length) {
+                best = Arrays.copyOf(chosen, depth);
+            }
+            return;
+        }
+        if (aborted) return;
+        if (++nodes > NODE_LIMIT || ((nodes & DEADLINE_CHECK_MASK) == 0 && deadline != Solver.NO_DEADLINE
+                && System.nanoTime() - deadline >= 0)) {
+            aborted = true;
+            return;
+        }
+        if (depth + bound(uncovered) >= best.length) return;
+
+        // the uncovered vertex that is hardest to cover
+        int u = -1, uDegree = Integer.MAX_VALUE;
+        for (long rest = uncovered; rest != 0; rest &= rest - 1) {
+            int v = Long.numberOfTrailingZeros(rest);
+            int degree = Long.bitCount(neighborhood[v]);
+            if (degree < uDegree) {
+                u = v;
+                uDegree = degree;
+            }
+        }
+
+        // one of its neighbors has to be chosen, try them by decreasing gain (insertion sort, there are few)
+        int[] cands = candidates[depth], g = gains[depth];
+        int count = 0;
+        for (long rest = neighborhood[u]; rest != 0; rest &= rest - 1) {
+            int v = Long.numberOfTrailingZeros(rest);
+            int gain = Long.bitCount(neighborhood[v] & uncovered);
+            int k = count++;
+            while (k > 0 && g[k - 1] < gain) {
+                cands[k] = cands[k - 1];
+                g[k] = g[k - 1];
+                k--;
+            }
+            cands[k] = v;
+            g[k] = gain;
+        }
+        for (int k = 0; k < count; k++) {
+            chosen[depth] = cands[k];
+            search(uncovered & ~neighborhood[cands[k]], depth + 1);
+        }
+    }
+
+    // smallest k such that the k largest gains cover everything still uncovered
+    private int bound(long uncovered) {
+        int total = Long.bitCount(uncovered);
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            int gain = Long.bitCount(neighborhood[v] & uncovered);
+            if (gain > 0) {
+                boundGains[count++] = gain;
+            }
+        }
+        Arrays.sort(boundGains, 0, count);
+        int k = 0;
+        for (int i = count - 1; i >= 0 && total > 0; i--) {
+            total -= boundGains[i];
+            k++;
+        }
+        return k;
+    }
+
+    // plain greedy for the first upper bound
+    private int[] greedy(long uncovered) {
+        int[] res = new int[n];
+        int size = 0;
+        while (uncovered != 0) {
+            int bestV = -1, bestGain = 0;
+            for (int v = 0; v < n; v++) {
+                int gain = Long.bitCount(neighborhood[v] & uncovered);
+                if (gain > bestGain) {
+                    bestV = v;
+                    bestGain = gain;
+                }
+            }
+            res[size++] = bestV;
+            uncovered &= ~neighborhood[bestV];
+        }
+        return Arrays.copyOf(res, size);
+    }
+}
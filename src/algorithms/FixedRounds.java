@@ -0,0 +1,32 @@
+package algorithms;
+
+// the classic gamble: rounds of constructionsPerWorker restarts on every worker, stopping after the first round
+// that brings no improvement (with a deadline the rounds just go on until the time is up)
+public final class FixedRounds implements SearchStrategy {
+    private final int constructionsPerWorker;
+
+    public FixedRounds(int constructionsPerWorker) {
+        if (constructionsPerWorker < 1) throw new IllegalArgumentException("constructionsPerWorker must be at least 1, got " + constructionsPerWorker);
+        this.constructionsPerWorker = constructionsPerWorker;
+    }
+
+    public int getConstructionsPerWorker() {
+        return constructionsPerWorker;
+    }
+
+    @Override
+    public void search(SearchContext context) {
+        context.refineWarmStart(constructionsPerWorker);
+        while (!context.finished()) {
+            int before = context.incumbentSize();
+            if (context.restarts(constructionsPerWorker) == before && !context.hasDeadline()) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "FixedRounds(" + constructionsPerWorker + ")";
+    }
+}
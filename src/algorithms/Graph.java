@@ -0,0 +1,289 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// immutable unit disk graph in compressed sparse row form:
+// the closed neighborhood of v (v itself included, like the old edgeMap diagonal) is target(start(v)) .. target(end(v) - 1)
+// built once per instance and shared read-only by all worker threads
+// the arrays live on the heap (HeapGraph) or outside of it (OffHeapGraph, see GraphStorage), the builders are here
+abstract class Graph {
+    private final int vertexCount;
+    // the arrays of a HeapGraph, null for the other storages
+    // the hot loops (GreedyEngine, LocalSearch, DestroyRebuild, PointSet) read them directly when they are there and only
+    // fall back on start/end/target otherwise: those calls turn megamorphic once the jvm has loaded the other Graph
+    // classes, and the heap solves would pay for that too
+    final int[] heapOffsets;
+    final int[] heapTargets;
+
+    Graph(int vertexCount) {
+        this(vertexCount, null, null);
+    }
+
+    Graph(int vertexCount, int[] heapOffsets, int[] heapTargets) {
+        this.vertexCount = vertexCount;
+        this.heapOffsets = heapOffsets;
+        this.heapTargets = heapTargets;
+    }
+
+    // grids with cells up to this size use the int kernel: two points of neighboring cells are less than 2 * cellSize apart
+    // on both axes, so dx * dx + dy * dy stays below 8 * cellSize^2 < 2^31
+    private static final int INT_KERNEL_MAX_CELL = 16383;
+
+    static Graph build(int[] xs, int[] ys, int count, int edgeThreshold) {
+        Scan scan = new Scan(xs, ys, count, edgeThreshold);
+        int[] offsets = new int[count + 1];
+        int[] targets = new int[Math.max(16, count * 8)];
+        int size = 0;
+        for (int p = 0; p < count; p++) {
+            if (size + scan.maxNeighbors() > targets.length) {
+                targets = Arrays.copyOf(targets, Math.max(size + scan.maxNeighbors(), targets.length << 1));
+            }
+            size += scan.neighbors(p, targets, size);
+            offsets[p + 1] = size;
+        }
+        return new HeapGraph(offsets, Arrays.copyOf(targets, size), count);
+    }
+
+    // the neighbor search of the builders, one closed neighborhood at a time
+    // only the 3x3 neighboring grid cells can contain neighbors, so this is about O(n * avg degree)
+    // the coordinates are copied in cell order (structure of arrays), so the 3 cells of a grid row are one contiguous strip,
+    // and every strip goes through a branch free squared distance loop the jit can vectorize, before a scalar pass
+    // picks the neighbors out of it, all in integers: dx^2 + dy^2 < t^2 is the same test as Point2D.distance < t here
+    // the neighbors come out in cell order then id order
+    static final class Scan {
+        private final int[] xs, ys;
+        private final int edgeThreshold;
+        private final SpatialGrid grid;
+        private final int[] sortedXs, sortedYs;
+        private final boolean intKernel;
+        private final int[] squared;
+        private final long[] squaredLong;
+        private final long threshold;
+        private final int maxNeighbors;
+
+        Scan(int[] xs, int[] ys, int count, int edgeThreshold) {
+            this.xs = xs;
+            this.ys = ys;
+            this.edgeThreshold = edgeThreshold;
+            grid = new SpatialGrid(xs, ys, count, edgeThreshold);
+            sortedXs = new int[count];
+            sortedYs = new int[count];
+            for (int k = 0; k < count; k++) {
+                sortedXs[k] = xs[grid.cellPoints[k]];
+                sortedYs[k] = ys[grid.cellPoints[k]];
+            }
+            int maxStrip = 0;
+            for (int row = 0; row < grid.rows; row++) {
+                for (int col = 0; col < grid.cols; col++) {
+                    int first = Math.max(0, col - 1) + row * grid.cols, last = Math.min(grid.cols - 1, col + 1) + row * grid.cols;
+                    maxStrip = Math.max(maxStrip, grid.cellStart[last + 1] - grid.cellStart[first]);
+                }
+            }
+            intKernel = grid.cellSize <= INT_KERNEL_MAX_CELL;
+            squared = new int[maxStrip];
+            squaredLong = intKernel ? null : new long[maxStrip];
+            threshold = (long) edgeThreshold * edgeThreshold;
+            maxNeighbors = (int) Math.min(count, 3L * maxStrip);
+        }
+
+        // no closed neighborhood is bigger
+        int maxNeighbors() {
+            return maxNeighbors;
+        }
+
+        // writes the closed neighborhood of p to out[at ..], returns its size
+        int neighbors(int p, int[] out, int at) {
+            int px = xs[p], py = ys[p];
+            int cx = grid.cellX(px), cy = grid.cellY(py);
+            int firstCol = Math.max(0, cx - 1), lastCol = Math.min(grid.cols - 1, cx + 1);
+            int size = at;
+            for (int ny = Math.max(0, cy - 1); ny <= Math.min(grid.rows - 1, cy + 1); ny++) {
+                int from = grid.cellStart[firstCol + ny * grid.cols], to = grid.cellStart[lastCol + ny * grid.cols + 1];
+                int length = to - from;
+                if (intKernel) {
+                    squaredDistances(sortedXs, sortedYs, from, length, px, py, squared);
+                    int t = (int) threshold;
+                    for (int k = 0; k < length; k++) {
+                        if (squared[k] < t) {
+                            out[size++] = grid.cellPoints[from + k];
+                        }
+                    }
+                } else {
+                    squaredDistances(sortedXs, sortedYs, from, length, px, py, edgeThreshold, squaredLong);
+                    for (int k = 0; k < length; k++) {
+                        if (squaredLong[k] < threshold) {
+                            out[size++] = grid.cellPoints[from + k];
+                        }
+                    }
+                }
+            }
+            return size - at;
+        }
+    }
+
+    // the graphs of several thresholds (graphs[i] for edgeThresholds[i]) from a single neighbor search at the largest one:
+    // its neighbor lists are sorted by distance, so the closed neighborhood at any smaller threshold is a prefix of them,
+    // found by binary search over the squared distances (the vertex itself comes first, at distance 0)
+    // the neighbors come in order of distance instead of cell order, the graphs are the same otherwise
+    // the squared distances are sorted packed into longs next to the ids, for thresholds over 46340 that doesn't fit
+    // and every graph is built on its own
+    static Graph[] buildAll(int[] xs, int[] ys, int count, int[] edgeThresholds) {
+        int max = 0;
+        for (int t: edgeThresholds) {
+            max = Math.max(max, t);
+        }
+        Graph[] graphs = new Graph[edgeThresholds.length];
+        if ((long) max * max > Integer.MAX_VALUE) {
+            for (int i = 0; i < graphs.length; i++) {
+                graphs[i] = build(xs, ys, count, edgeThresholds[i]);
+            }
+            return graphs;
+        }
+
+        Graph full = build(xs, ys, count, max);
+        int maxDegree = 0;
+        for (int v = 0; v < count; v++) {
+            maxDegree = Math.max(maxDegree, full.degree(v));
+        }
+        int[] sorted = new int[full.targetCount()], squared = new int[full.targetCount()];
+        long[] keys = new long[maxDegree];
+        for (int v = 0; v < count; v++) {
+            int from = full.start(v), degree = full.degree(v);
+            for (int k = 0; k < degree; k++) {
+                int q = full.target(from + k);
+                long dx = (long) xs[q] - xs[v], dy = (long) ys[q] - ys[v];
+                keys[k] = (dx * dx + dy * dy) << 32 | q;
+            }
+            Arrays.sort(keys, 0, degree);
+            for (int k = 0; k < degree; k++) {
+                sorted[from + k] = (int) keys[k];
+                squared[from + k] = (int) (keys[k] >>> 32);
+            }
+        }
+
+        for (int i = 0; i < graphs.length; i++) {
+            long threshold = (long) edgeThresholds[i] * edgeThresholds[i];
+            int[] offsets = new int[count + 1];
+            int[] ends = new int[count];
+            for (int v = 0; v < count; v++) {
+                ends[v] = prefixEnd(squared, full.start(v), full.end(v), threshold);
+                offsets[v + 1] = offsets[v] + ends[v] - full.start(v);
+            }
+            int[] targets = new int[offsets[count]];
+            for (int v = 0; v < count; v++) {
+                System.arraycopy(sorted, full.start(v), targets, offsets[v], ends[v] - full.start(v));
+            }
+            graphs[i] = new HeapGraph(offsets, targets, count);
+        }
+        return graphs;
+    }
+
+    // first index in [from, to) whose squared distance isn't below threshold
+    private static int prefixEnd(int[] squared, int from, int to, long threshold) {
+        int lo = from, hi = to;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (squared[mid] < threshold) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // the int subtractions may wrap for far apart coordinates, but the difference of two points of neighboring cells fits
+    private static void squaredDistances(int[] sortedXs, int[] sortedYs, int from, int length, int px, int py, int[] out) {
+        for (int k = 0; k < length; k++) {
+            int dx = sortedXs[from + k] - px, dy = sortedYs[from + k] - py;
+            out[k] = dx * dx + dy * dy;
+        }
+    }
+
+    // for huge cells (very sparse inputs) the squares need longs, and the differences are capped at the threshold
+    // so the sum can't overflow either (it's still at least t^2 when capped)
+    private static void squaredDistances(int[] sortedXs, int[] sortedYs, int from, int length, int px, int py, int edgeThreshold, long[] out) {
+        for (int k = 0; k < length; k++) {
+            long dx = Math.min(Math.abs((long) sortedXs[from + k] - px), edgeThreshold);
+            long dy = Math.min(Math.abs((long) sortedYs[from + k] - py), edgeThreshold);
+            out[k] = dx * dx + dy * dy;
+        }
+    }
+
+    int vertexCount() {
+        return vertexCount;
+    }
+
+    // counts every edge twice plus the self loops, same as the neighbor lists
+    int targetCount() {
+        return start(vertexCount);
+    }
+
+    abstract int start(int v);
+
+    abstract int end(int v);
+
+    int degree(int v) {
+        return end(v) - start(v);
+    }
+
+    abstract int target(int i);
+
+    // gives the memory back right away where the storage allows it, the graph must not be used anymore
+    void release() {
+    }
+
+    // connected components as vertex lists, numbered by their smallest vertex
+    int[][] components() {
+        int[] componentOf = new int[vertexCount];
+        Arrays.fill(componentOf, -1);
+        int[] queue = new int[vertexCount];
+        int[][] res = new int[vertexCount][];
+        int count = 0;
+        for (int s = 0; s < vertexCount; s++) {
+            if (componentOf[s] != -1) continue;
+            int head = 0, tail = 0;
+            queue[tail++] = s;
+            componentOf[s] = count;
+            while (head < tail) {
+                int v = queue[head++];
+                for (int i = start(v), end = end(v); i < end; i++) {
+                    int w = target(i);
+                    if (componentOf[w] == -1) {
+                        componentOf[w] = count;
+                        queue[tail++] = w;
+                    }
+                }
+            }
+            res[count++] = Arrays.copyOf(queue, tail);
+        }
+        return Arrays.copyOf(res, count);
+    }
+
+    // what the solver works on for one of its components (same contract as subgraph): a heap copy, which is the fastest
+    // to search, OffHeapGraph returns a SubgraphView instead so the adjacency doesn't come back onto the heap
+    Graph component(int[] vertices, int[] localId) {
+        return subgraph(vertices, localId);
+    }
+
+    // induced subgraph on vertices, vertex i of the result is vertices[i]
+    // vertices has to be closed under neighborhoods (a union of components), localId is scratch space of size vertexCount
+    // that is only written at the given vertices, so it can be shared by calls for disjoint vertex sets
+    Graph subgraph(int[] vertices, int[] localId) {
+        for (int i = 0; i < vertices.length; i++) {
+            localId[vertices[i]] = i;
+        }
+        int[] subOffsets = new int[vertices.length + 1];
+        for (int i = 0; i < vertices.length; i++) {
+            subOffsets[i + 1] = subOffsets[i] + degree(vertices[i]);
+        }
+        int[] subTargets = new int[subOffsets[vertices.length]];
+        for (int i = 0; i < vertices.length; i++) {
+            int v = vertices[i];
+            for (int k = start(v), j = subOffsets[i], end = end(v); k < end; k++, j++) {
+                subTargets[j] = localId[target(k)];
+            }
+        }
+        return new HeapGraph(subOffsets, subTargets, vertices.length);
+    }
+}
@@ -0,0 +1,63 @@
+package algorithms;
+
+import java.nio.file.Path;
+
+// where a Solver or a TiledSolver keeps the graph of an instance:
+// - heap(), the default: two int arrays, the fastest to read
+// - offHeap(): direct buffers, which the collector neither scans nor moves, but they count against
+//   -XX:MaxDirectMemorySize (the max heap size unless set)
+// - mapped(directory): memory mapped temporary files in directory, only page cache, so the os can page them out
+//   and a small heap runs instances whose graph is bigger than the memory given to the jvm
+// only the graph moves: the coordinates (xs/ys, 8 bytes a point) stay on the heap with the caller, and so does the build's
+// scratch, the grid and the sorted coordinates (about 16 bytes a point, dropped after the build), the neighbor lists
+// (the bulk of it, about n * (average degree + 1) ints) go straight to the storage
+// the solve keeps them there (the components are views on the graph, see SubgraphView), what stays on the heap is the
+// search state, about 10 int arrays of the largest component's size per worker: a TiledSolver keeps that to the tile
+// size, a Solver on one huge component needs the heap for it
+// so a small heap works for a TiledSolver (10M mapped points solve in -Xmx600m, at most 164MB live), a Solver needs
+// about 40 bytes a point of the largest component per worker on top of that
+// the neighbor lists are int indexed, a graph can't have more than 2^31 - 1 entries (see OffHeapGraph.MAX_TARGETS),
+// e.g. 10M points with about 200 neighbors each, the build fails with an IllegalArgumentException past that
+public final class GraphStorage {
+    private static final GraphStorage HEAP = new GraphStorage(false, null);
+    private static final GraphStorage OFF_HEAP = new GraphStorage(true, null);
+
+    private final boolean offHeap;
+    private final Path directory;
+
+    private GraphStorage(boolean offHeap, Path directory) {
+        this.offHeap = offHeap;
+        this.directory = directory;
+    }
+
+    public static GraphStorage heap() {
+        return HEAP;
+    }
+
+    public static GraphStorage offHeap() {
+        return OFF_HEAP;
+    }
+
+    public static GraphStorage mapped(Path directory) {
+        if (directory == null) throw new IllegalArgumentException("directory must not be null");
+        return new GraphStorage(true, directory);
+    }
+
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    // null unless mapped
+    public Path getDirectory() {
+        return directory;
+    }
+
+    Graph build(int[] xs, int[] ys, int count, int edgeThreshold) {
+        return offHeap ? OffHeapGraph.build(xs, ys, count, edgeThreshold, directory) : Graph.build(xs, ys, count, edgeThreshold);
+    }
+
+    @Override
+    public String toString() {
+        return !offHeap ? "heap" : directory == null ? "offHeap" : "mapped(" + directory + ")";
+    }
+}
@@ -0,0 +1,196 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// weighted random greedy: repeatedly take a vertex with the most uncovered closed neighbors, ties broken uniformly at random
+// only uncovered vertices of the universe are candidates, neighbors outside of the universe do not exist
+// (except in complete, where every vertex is a candidate and only counts its neighbors in the universe)
+//
+// the gains live in a bucket queue: perm holds the vertices sorted by gain, bucket g being perm[bucketStart[g] .. bucketStart[g+1])
+// lowering a gain by one swaps the vertex to the front of its bucket and moves the border, so it's O(1),
+// and picking a random vertex of the top bucket is O(1) as well
+// gain 0 is used for everything that isn't a candidate anymore (covered or outside of the universe)
+// choosing a dominator only touches its 2-hop neighborhood, so a whole construction is about O(n + m)
+// one engine per worker thread, all the arrays are allocated once and reused for every construction
+final class GreedyEngine {
+    // only look at the clock every 256 picks, it only matters for huge instances anyway
+    private static final int DEADLINE_CHECK_MASK = 255;
+
+    private final Graph graph;
+    private final int n;
+    private SplittableRandom random = new SplittableRandom();
+
+    private final int[] gain;
+    private final int[] perm;
+    private final int[] pos;
+    private final int[] bucketStart;
+    private final PointSet inUniverse;
+    private final PointSet covered;
+    private final int[] newlyCovered;
+    private final int[] dominators;
+    private int dominatorCount;
+    private boolean anyCandidate; // complete() lets every vertex cover the targets, construct() only the uncovered ones
+
+    GreedyEngine(Graph graph) {
+        this.graph = graph;
+        this.n = graph.vertexCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, graph.degree(v));
+        }
+        gain = new int[n];
+        perm = new int[n];
+        pos = new int[n];
+        bucketStart = new int[maxDegree + 2];
+        inUniverse = new PointSet(n);
+        covered = new PointSet(n);
+        newlyCovered = new int[maxDegree];
+        dominators = new int[n];
+    }
+
+    // the ties of the following constructions are broken with this seed, for reproducible runs
+    void seed(long seed) {
+        random = new SplittableRandom(seed);
+    }
+
+    // returns the number of dominators, they can be read with dominator(i) until the next call
+    int construct(PointSet universe) {
+        return construct(universe, Integer.MAX_VALUE, Solver.NO_DEADLINE);
+    }
+
+    // same but gives up and returns -1 as soon as the result can't be smaller than bound anymore,
+    // or once the deadline (System.nanoTime based) has passed
+    int construct(PointSet universe, int bound, long deadline) {
+        anyCandidate = false;
+        return run(universe, bound, deadline);
+    }
+
+    // covers the targets using any vertex, e.g. what a partial dominating set leaves uncovered
+    // same return value and early exits as construct, a vertex that can't cover any target is never chosen
+    int complete(PointSet targets, int bound, long deadline) {
+        anyCandidate = true;
+        return run(targets, bound, deadline);
+    }
+
+    private int run(PointSet universe, int bound, long deadline) {
+        inUniverse.copyFrom(universe);
+        covered.clear();
+        initBuckets();
+        dominatorCount = 0;
+
+        int top = bucketStart.length - 2;
+        while (true) {
+            while (top > 0 && bucketStart[top] == bucketStart[top + 1]) {
+                top--;
+            }
+            if (top == 0) {
+                break; // no candidate left means everything in the universe is covered
+            }
+            if (dominatorCount + 1 >= bound) {
+                return -1; // at best we'd tie the incumbent
+            }
+            if ((dominatorCount & DEADLINE_CHECK_MASK) == DEADLINE_CHECK_MASK && deadline != Solver.NO_DEADLINE
+                    && System.nanoTime() - deadline >= 0) {
+                return -1;
+            }
+            int from = bucketStart[top], to = bucketStart[top + 1];
+            int chosen = perm[from + random.nextInt(to - from)];
+            dominators[dominatorCount++] = chosen;
+            cover(chosen);
+        }
+        return dominatorCount;
+    }
+
+    int dominator(int i) {
+        return dominators[i];
+    }
+
+    private void initBuckets() {
+        Arrays.fill(bucketStart, 0);
+        Arrays.fill(gain, 0);
+        if (anyCandidate) {
+            for (int v = 0; v < n; v++) {
+                int g = inUniverse.countNeighborhood(graph, v);
+                gain[v] = g;
+                bucketStart[g + 1]++;
+            }
+        } else {
+            bucketStart[1] = n - inUniverse.size();
+            for (int v = inUniverse.nextSetBit(0); v != -1; v = inUniverse.nextSetBit(v + 1)) {
+                int g = inUniverse.countNeighborhood(graph, v);
+                gain[v] = g;
+                bucketStart[g + 1]++;
+            }
+        }
+        for (int g = 1; g < bucketStart.length; g++) {
+            bucketStart[g] += bucketStart[g - 1];
+        }
+        // bucketStart[g+1] is now the end of bucket g, filling from the back leaves it at the start of bucket g
+        for (int v = n - 1; v >= 0; v--) {
+            int p = --bucketStart[gain[v] + 1];
+            perm[p] = v;
+            pos[v] = p;
+        }
+        for (int g = 0; g < bucketStart.length - 1; g++) {
+            bucketStart[g] = bucketStart[g + 1];
+        }
+        bucketStart[bucketStart.length - 1] = n;
+    }
+
+    // the loops read the arrays of a heap graph directly, see Graph.heapOffsets
+    private void cover(int dominator) {
+        int[] offsets = graph.heapOffsets, targets = graph.heapTargets;
+        int count = 0;
+        if (offsets != null) {
+            for (int i = offsets[dominator], end = offsets[dominator + 1]; i < end; i++) {
+                count = markCovered(targets[i], count);
+            }
+        } else {
+            for (int i = graph.start(dominator), end = graph.end(dominator); i < end; i++) {
+                count = markCovered(graph.target(i), count);
+            }
+        }
+        for (int k = 0; k < count; k++) {
+            int u = newlyCovered[k];
+            if (offsets != null) {
+                for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                    lowerGain(targets[i]);
+                }
+            } else {
+                for (int i = graph.start(u), end = graph.end(u); i < end; i++) {
+                    lowerGain(graph.target(i));
+                }
+            }
+        }
+    }
+
+    // returns the new number of newly covered vertices
+    private int markCovered(int u, int count) {
+        if (inUniverse.contains(u) && covered.add(u)) {
+            newlyCovered[count++] = u;
+            while (!anyCandidate && gain[u] > 0) { // u is not a candidate anymore, each vertex drops to 0 only once so this stays linear
+                decrement(u);
+            }
+        }
+        return count;
+    }
+
+    private void lowerGain(int w) {
+        if (gain[w] > 0) {
+            decrement(w);
+        }
+    }
+
+    private void decrement(int v) {
+        int g = gain[v];
+        int first = bucketStart[g];
+        int other = perm[first];
+        perm[pos[v]] = other;
+        pos[other] = pos[v];
+        perm[first] = v;
+        pos[v] = first;
+        bucketStart[g]++;
+        gain[v] = g - 1;
+    }
+}
@@ -0,0 +1,28 @@
+package algorithms;
+
+// the plain Graph: offsets and neighbor lists in two int arrays on the heap (Graph.heapOffsets and heapTargets)
+final class HeapGraph extends Graph {
+    HeapGraph(int[] offsets, int[] targets, int vertexCount) {
+        super(vertexCount, offsets, targets);
+    }
+
+    @Override
+    int start(int v) {
+        return heapOffsets[v];
+    }
+
+    @Override
+    int end(int v) {
+        return heapOffsets[v + 1];
+    }
+
+    @Override
+    int degree(int v) {
+        return heapOffsets[v + 1] - heapOffsets[v];
+    }
+
+    @Override
+    int target(int i) {
+        return heapTargets[i];
+    }
+}
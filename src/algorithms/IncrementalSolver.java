@@ -0,0 +1,434 @@
+package algorithms;
+
+import java.util.Arrays;
+import java.util.HashMap;
+
+// keeps a dominating set up to date while points come and go, without solving from scratch
+// points are referred to by handles, a deleted point's handle is reused by a later insert
+//
+// the adjacency lives in a hashed grid of threshold sized cells plus growable neighbor lists, so an update only looks at
+// the 3x3 cells around the changed points, the coverage bookkeeping is the one of LocalSearch (cover count, xor of the covering
+// dominators and private counts), after every batch the uncovered points around the change are repaired greedily and
+// the dominators within two hops of the change go through redundancy removal and 2-for-1 swaps
+// so the cost of a batch is proportional to the size of the change (times the local density), not to the instance size
+// not thread safe, one instance per point set
+public final class IncrementalSolver {
+    private final int edgeThreshold;
+    private final long squaredThreshold;
+    private final HashMap<Long, Cell> cells = new HashMap<>();
+
+    private int capacity;
+    private int[] xs, ys;
+    private boolean[] alive;
+    private int[] posInCell;
+    private int[][] neighbors; // open neighborhoods, the point itself is handled separately
+    private int[] neighborCount;
+    private int[] freeHandles;
+    private int freeCount;
+    private int handleCount; // handles ever used
+    private int size;
+
+    private int[] coverCount, coverXor, privateCount;
+    private boolean[] isDominator;
+    private int[] dominators, dominatorPos;
+    private int dominatorCount;
+
+    // scratch for a batch
+    private int[] stamp;
+    private int currentStamp;
+    private int[] affected = new int[16];
+    private int affectedCount;
+    private int[] region = new int[16];
+    private int regionCount;
+    private int[] uncoveredBuffer = new int[16];
+    private int[] freed = new int[16];
+    private int freedCount;
+
+    private static final class Cell {
+        int[] items = new int[4];
+        int size;
+    }
+
+    public IncrementalSolver(int edgeThreshold) {
+        if (edgeThreshold < 1) throw new IllegalArgumentException("edgeThreshold must be positive, got " + edgeThreshold);
+        this.edgeThreshold = edgeThreshold;
+        this.squaredThreshold = (long) edgeThreshold * edgeThreshold;
+        grow(16);
+    }
+
+    // starts from a full solve of the initial points, handle i is point i
+    public IncrementalSolver(int[] xs, int[] ys, int edgeThreshold, Solver solver) {
+        this(edgeThreshold);
+        grow(xs.length);
+        for (int i = 0; i < xs.length; i++) {
+            link(newPoint(xs[i], ys[i]));
+        }
+        Graph graph = solver.buildGraph(xs, ys, xs.length, edgeThreshold);
+        try {
+            for (int d: solver.solve(graph).dominators) {
+                addDominator(d);
+            }
+        } finally {
+            graph.release();
+        }
+    }
+
+    public int getEdgeThreshold() {
+        return edgeThreshold;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getX(int handle) {
+        checkHandle(handle);
+        return xs[handle];
+    }
+
+    public int getY(int handle) {
+        checkHandle(handle);
+        return ys[handle];
+    }
+
+    // handles of the current dominators
+    public int[] dominators() {
+        return Arrays.copyOf(dominators, dominatorCount);
+    }
+
+    public int dominatorCount() {
+        return dominatorCount;
+    }
+
+    // inserts the points (xs[i], ys[i]) and returns their handles
+    public int[] insert(int[] xs, int[] ys) {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        grow(handleCount + xs.length);
+        startBatch();
+        int[] handles = new int[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            int p = newPoint(xs[i], ys[i]);
+            handles[i] = p;
+            link(p);
+            markAffected(p);
+        }
+        repair();
+        return handles;
+    }
+
+    public void delete(int[] handles) {
+        for (int p: handles) {
+            checkHandle(p);
+        }
+        startBatch();
+        for (int p: handles) {
+            if (!alive[p]) continue; // deleted twice in the same batch
+            if (isDominator[p]) {
+                removeDominator(p);
+            }
+            for (int k = 0; k < neighborCount[p]; k++) {
+                int q = neighbors[p][k];
+                if (isDominator[q]) {
+                    uncover(p, q);
+                }
+                removeNeighbor(q, p);
+                markAffected(q);
+            }
+            neighborCount[p] = 0;
+            removeFromCell(p);
+            alive[p] = false;
+            freeHandles[freeCount++] = p;
+            size--;
+        }
+        repair();
+    }
+
+    private void checkHandle(int handle) {
+        if (handle < 0 || handle >= handleCount || !alive[handle]) throw new IllegalArgumentException("no point with handle " + handle);
+    }
+
+    // ---- points, grid and adjacency
+
+    private int newPoint(int x, int y) {
+        int p = freeCount > 0 ? freeHandles[--freeCount] : handleCount++;
+        xs[p] = x;
+        ys[p] = y;
+        alive[p] = true;
+        neighborCount[p] = 0;
+        coverCount[p] = 0;
+        coverXor[p] = 0;
+        privateCount[p] = 0;
+        isDominator[p] = false;
+        size++;
+        return p;
+    }
+
+    // adds p to its cell and connects it with every point closer than the threshold
+    private void link(int p) {
+        int cx = Math.floorDiv(xs[p], edgeThreshold), cy = Math.floorDiv(ys[p], edgeThreshold);
+        for (int ny = cy - 1; ny <= cy + 1; ny++) {
+            for (int nx = cx - 1; nx <= cx + 1; nx++) {
+                Cell cell = cells.get(cellKey(nx, ny));
+                if (cell == null) continue;
+                for (int i = 0; i < cell.size; i++) {
+                    int q = cell.items[i];
+                    long dx = xs[p] - xs[q], dy = ys[p] - ys[q];
+                    if (dx * dx + dy * dy < squaredThreshold) {
+                        addNeighbor(p, q);
+                        addNeighbor(q, p);
+                        if (isDominator[q]) {
+                            cover(p, q);
+                        }
+                    }
+                }
+            }
+        }
+        Cell cell = cells.computeIfAbsent(cellKey(cx, cy), k -> new Cell());
+        if (cell.size == cell.items.length) {
+            cell.items = Arrays.copyOf(cell.items, cell.size << 1);
+        }
+        posInCell[p] = cell.size;
+        cell.items[cell.size++] = p;
+    }
+
+    private void removeFromCell(int p) {
+        long key = cellKey(Math.floorDiv(xs[p], edgeThreshold), Math.floorDiv(ys[p], edgeThreshold));
+        Cell cell = cells.get(key);
+        int last = cell.items[--cell.size];
+        cell.items[posInCell[p]] = last;
+        posInCell[last] = posInCell[p];
+        if (cell.size == 0) {
+            cells.remove(key);
+        }
+    }
+
+    private static long cellKey(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    private void addNeighbor(int p, int q) {
+        if (neighborCount[p] == neighbors[p].length) {
+            neighbors[p] = Arrays.copyOf(neighbors[p], Math.max(4, neighborCount[p] << 1));
+        }
+        neighbors[p][neighborCount[p]++] = q;
+    }
+
+    private void removeNeighbor(int p, int q) {
+        int[] list = neighbors[p];
+        for (int k = 0; k < neighborCount[p]; k++) {
+            if (list[k] == q) {
+                list[k] = list[--neighborCount[p]];
+                return;
+            }
+        }
+    }
+
+    private void grow(int needed) {
+        if (needed <= capacity) return;
+        int newCapacity = Math.max(needed, capacity << 1);
+        xs = Arrays.copyOf(xs == null ? new int[0] : xs, newCapacity);
+        ys = Arrays.copyOf(ys == null ? new int[0] : ys, newCapacity);
+        alive = Arrays.copyOf(alive == null ? new boolean[0] : alive, newCapacity);
+        posInCell = Arrays.copyOf(posInCell == null ? new int[0] : posInCell, newCapacity);
+        neighborCount = Arrays.copyOf(neighborCount == null ? new int[0] : neighborCount, newCapacity);
+        neighbors = Arrays.copyOf(neighbors == null ? new int[0][] : neighbors, newCapacity);
+        for (int i = capacity; i < newCapacity; i++) {
+            neighbors[i] = new int[0];
+        }
+        freeHandles = Arrays.copyOf(freeHandles == null ? new int[0] : freeHandles, newCapacity);
+        coverCount = Arrays.copyOf(coverCount == null ? new int[0] : coverCount, newCapacity);
+        coverXor = Arrays.copyOf(coverXor == null ? new int[0] : coverXor, newCapacity);
+        privateCount = Arrays.copyOf(privateCount == null ? new int[0] : privateCount, newCapacity);
+        isDominator = Arrays.copyOf(isDominator == null ? new boolean[0] : isDominator, newCapacity);
+        dominators = Arrays.copyOf(dominators == null ? new int[0] : dominators, newCapacity);
+        dominatorPos = Arrays.copyOf(dominatorPos == null ? new int[0] : dominatorPos, newCapacity);
+        stamp = Arrays.copyOf(stamp == null ? new int[0] : stamp, newCapacity);
+        capacity = newCapacity;
+    }
+
+    // ---- coverage bookkeeping, same scheme as LocalSearch
+
+    private void cover(int x, int d) {
+        int count = ++coverCount[x];
+        coverXor[x] ^= d;
+        if (count == 1) {
+            privateCount[d]++;
+        } else if (count == 2) {
+            int other = coverXor[x] ^ d;
+            if (--privateCount[other] == 0) {
+                freed = push(freed, freedCount++, other);
+            }
+        }
+    }
+
+    private void uncover(int x, int d) {
+        int count = --coverCount[x];
+        coverXor[x] ^= d;
+        if (count == 0) {
+            privateCount[d]--;
+        } else if (count == 1) {
+            privateCount[coverXor[x]]++;
+        }
+    }
+
+    private void addDominator(int d) {
+        isDominator[d] = true;
+        dominatorPos[d] = dominatorCount;
+        dominators[dominatorCount++] = d;
+        freedCount = 0;
+        cover(d, d);
+        for (int k = 0; k < neighborCount[d]; k++) {
+            cover(neighbors[d][k], d);
+        }
+    }
+
+    private void removeDominator(int d) {
+        isDominator[d] = false;
+        int last = dominators[--dominatorCount];
+        dominators[dominatorPos[d]] = last;
+        dominatorPos[last] = dominatorPos[d];
+        uncover(d, d);
+        for (int k = 0; k < neighborCount[d]; k++) {
+            uncover(neighbors[d][k], d);
+        }
+    }
+
+    // ---- repair and local improvement around the change
+
+    private void startBatch() {
+        affectedCount = 0;
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+    }
+
+    private void markAffected(int p) {
+        if (stamp[p] != currentStamp) {
+            stamp[p] = currentStamp;
+            affected = push(affected, affectedCount++, p);
+        }
+    }
+
+    private void repair() {
+        // greedy: every still uncovered affected point gets the neighbor covering the most uncovered points
+        for (int i = 0; i < affectedCount; i++) {
+            int u = affected[i];
+            if (!alive[u] || coverCount[u] > 0) continue;
+            int best = u, bestGain = uncoveredAround(u);
+            for (int k = 0; k < neighborCount[u]; k++) {
+                int c = neighbors[u][k];
+                int gain = uncoveredAround(c);
+                if (gain > bestGain) {
+                    best = c;
+                    bestGain = gain;
+                }
+            }
+            addDominator(best);
+            for (int k = 0; k < neighborCount[best]; k++) {
+                markAffected(neighbors[best][k]); // so the new dominator is in the improvement region
+            }
+        }
+
+        // dominators within two hops of the change
+        if (++currentStamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamp, 0);
+            currentStamp = 1;
+        }
+        regionCount = 0;
+        for (int i = 0; i < affectedCount; i++) {
+            int p = affected[i];
+            if (!alive[p]) continue;
+            markRegion(p);
+            for (int k = 0; k < neighborCount[p]; k++) {
+                int q = neighbors[p][k];
+                markRegion(q);
+                for (int j = 0; j < neighborCount[q]; j++) {
+                    markRegion(neighbors[q][j]);
+                }
+            }
+        }
+
+        for (int i = 0; i < regionCount; i++) {
+            int d = region[i];
+            if (isDominator[d] && privateCount[d] == 0) {
+                removeDominator(d);
+            }
+        }
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = 0; i < regionCount; i++) {
+                if (isDominator[region[i]] && trySwap(region[i])) {
+                    improved = true;
+                }
+            }
+        }
+    }
+
+    private void markRegion(int p) {
+        if (isDominator[p] && stamp[p] != currentStamp) {
+            stamp[p] = currentStamp;
+            region = push(region, regionCount++, p);
+        }
+    }
+
+    private int uncoveredAround(int c) {
+        int gain = coverCount[c] == 0 ? 1 : 0;
+        for (int k = 0; k < neighborCount[c]; k++) {
+            if (coverCount[neighbors[c][k]] == 0) {
+                gain++;
+            }
+        }
+        return gain;
+    }
+
+    // LocalSearch.trySwap on the dynamic adjacency
+    private boolean trySwap(int a) {
+        removeDominator(a);
+        int uncoveredCount = 0;
+        if (coverCount[a] == 0) {
+            uncoveredBuffer = push(uncoveredBuffer, uncoveredCount++, a);
+        }
+        for (int k = 0; k < neighborCount[a]; k++) {
+            int x = neighbors[a][k];
+            if (coverCount[x] == 0) {
+                uncoveredBuffer = push(uncoveredBuffer, uncoveredCount++, x);
+            }
+        }
+        if (uncoveredCount == 0) {
+            return true;
+        }
+
+        int u = uncoveredBuffer[0];
+        for (int k = -1; k < neighborCount[u]; k++) {
+            int c = k == -1 ? u : neighbors[u][k];
+            if (c == a) continue;
+            addDominator(c);
+            boolean coversAll = true;
+            for (int j = 0; j < uncoveredCount && coversAll; j++) {
+                coversAll = coverCount[uncoveredBuffer[j]] > 0;
+            }
+            if (coversAll) {
+                for (int j = 0; j < freedCount; j++) {
+                    int b = freed[j];
+                    if (privateCount[b] == 0 && isDominator[b]) {
+                        removeDominator(b);
+                        return true;
+                    }
+                }
+            }
+            removeDominator(c);
+        }
+        addDominator(a);
+        return false;
+    }
+
+    private static int[] push(int[] array, int index, int value) {
+        if (index == array.length) {
+            array = Arrays.copyOf(array, array.length << 1);
+        }
+        array[index] = value;
+        return array;
+    }
+}
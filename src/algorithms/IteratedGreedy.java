@@ -0,0 +1,64 @@
+package algorithms;
+
+// a few restarts for a start (none after a warm start), then batches of destroy and rebuild steps on the incumbent (see DestroyRebuild):
+// every worker walks from the incumbent, keeping a perturbed set whenever it's no bigger than its current one
+// without a deadline the search stops after patience batches in a row without improvement
+public final class IteratedGreedy implements SearchStrategy {
+    private final int initialPerWorker;
+    private final int stepsPerWorker;
+    private final double destroyFraction;
+    private final int patience;
+
+    public IteratedGreedy() {
+        this(10, 50, 0.05, 3);
+    }
+
+    public IteratedGreedy(int initialPerWorker, int stepsPerWorker, double destroyFraction, int patience) {
+        if (initialPerWorker < 1) throw new IllegalArgumentException("initialPerWorker must be at least 1, got " + initialPerWorker);
+        if (stepsPerWorker < 1) throw new IllegalArgumentException("stepsPerWorker must be at least 1, got " + stepsPerWorker);
+        if (!(destroyFraction > 0 && destroyFraction <= 1)) throw new IllegalArgumentException("destroyFraction must be in (0, 1], got " + destroyFraction);
+        if (patience < 1) throw new IllegalArgumentException("patience must be at least 1, got " + patience);
+        this.initialPerWorker = initialPerWorker;
+        this.stepsPerWorker = stepsPerWorker;
+        this.destroyFraction = destroyFraction;
+        this.patience = patience;
+    }
+
+    public int getInitialPerWorker() {
+        return initialPerWorker;
+    }
+
+    public int getStepsPerWorker() {
+        return stepsPerWorker;
+    }
+
+    public double getDestroyFraction() {
+        return destroyFraction;
+    }
+
+    public int getPatience() {
+        return patience;
+    }
+
+    @Override
+    public void search(SearchContext context) {
+        // a warm start is a better starting point than a few restarts
+        if (!context.warmStarted()) {
+            context.restarts(initialPerWorker);
+        }
+        int stale = 0;
+        while (!context.finished()) {
+            int before = context.incumbentSize();
+            if (context.perturb(stepsPerWorker, destroyFraction) < before) {
+                stale = 0;
+            } else if (++stale >= patience && !context.hasDeadline()) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "IteratedGreedy(" + initialPerWorker + ", " + stepsPerWorker + ", " + destroyFraction + ", " + patience + ")";
+    }
+}
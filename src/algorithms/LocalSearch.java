@@ -0,0 +1,194 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// local improvement of a dominating set: drops redundant dominators and replaces two dominators by one where possible
+// every vertex keeps its cover count and the xor of the ids of the dominators covering it,
+// so when the count is 1 the xor is the one dominator covering it, and every dominator knows how many vertices only it covers
+// a dominator is redundant iff it has no private vertex, and adding or removing a dominator only touches its neighborhood,
+// so each move is evaluated in time proportional to the neighborhood sizes instead of rebuilding the coverage
+// one instance per worker thread, the arrays are reused
+final class LocalSearch {
+    private final Graph graph;
+    private final int[] coverCount;
+    private final int[] coverXor;
+    private final int[] privateCount;
+    private final PointSet isDominator;
+    private final int[] dominators;
+    private final int[] dominatorPos;
+    private int dominatorCount;
+    private final int[] uncovered;
+    private final int[] freed; // dominators that lost their last private vertex during the last add
+    private int freedCount;
+
+    LocalSearch(Graph graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, graph.degree(v));
+        }
+        coverCount = new int[n];
+        coverXor = new int[n];
+        privateCount = new int[n];
+        isDominator = new PointSet(n);
+        dominators = new int[n];
+        dominatorPos = new int[n];
+        uncovered = new int[maxDegree];
+        freed = new int[maxDegree];
+    }
+
+    // improves the dominating set in set[0 .. count), writes the result back into set and returns its size
+    int improve(int[] set, int count) {
+        Arrays.fill(coverCount, 0);
+        Arrays.fill(coverXor, 0);
+        Arrays.fill(privateCount, 0);
+        isDominator.clear();
+        dominatorCount = 0;
+        for (int i = 0; i < count; i++) {
+            add(set[i]);
+        }
+
+        for (int i = dominatorCount - 1; i >= 0; i--) {
+            if (i < dominatorCount && privateCount[dominators[i]] == 0) {
+                remove(dominators[i]);
+            }
+        }
+
+        boolean improved = true;
+        while (improved) {
+            improved = false;
+            for (int i = dominatorCount - 1; i >= 0; i--) {
+                if (i < dominatorCount && trySwap(dominators[i])) {
+                    improved = true;
+                }
+            }
+        }
+
+        System.arraycopy(dominators, 0, set, 0, dominatorCount);
+        return dominatorCount;
+    }
+
+    // tries to replace a and some other dominator by a single new one
+    // the loops here and in add and remove read the arrays of a heap graph directly, see Graph.heapOffsets
+    private boolean trySwap(int a) {
+        remove(a);
+        int[] offsets = graph.heapOffsets, targets = graph.heapTargets;
+        int uncoveredCount = 0;
+        if (offsets != null) {
+            for (int i = offsets[a], end = offsets[a + 1]; i < end; i++) {
+                int x = targets[i];
+                if (coverCount[x] == 0) {
+                    uncovered[uncoveredCount++] = x;
+                }
+            }
+        } else {
+            for (int i = graph.start(a), end = graph.end(a); i < end; i++) {
+                int x = graph.target(i);
+                if (coverCount[x] == 0) {
+                    uncovered[uncoveredCount++] = x;
+                }
+            }
+        }
+        if (uncoveredCount == 0) {
+            return true; // a was redundant
+        }
+
+        // whoever replaces a has to cover its first private vertex, so it's one of that vertex's neighbors
+        int u = uncovered[0];
+        if (offsets != null) {
+            for (int i = offsets[u], end = offsets[u + 1]; i < end; i++) {
+                if (replaces(targets[i], a, uncoveredCount)) return true;
+            }
+        } else {
+            for (int i = graph.start(u), end = graph.end(u); i < end; i++) {
+                if (replaces(graph.target(i), a, uncoveredCount)) return true;
+            }
+        }
+        add(a);
+        return false;
+    }
+
+    // adds c in place of a, true if that frees another dominator, which is then removed, otherwise c goes again
+    private boolean replaces(int c, int a, int uncoveredCount) {
+        if (c == a) return false;
+        add(c);
+        if (coversAll(uncovered, uncoveredCount)) {
+            for (int k = 0; k < freedCount; k++) {
+                int b = freed[k];
+                if (privateCount[b] == 0 && isDominator.contains(b)) {
+                    remove(b);
+                    return true;
+                }
+            }
+        }
+        remove(c);
+        return false;
+    }
+
+    private boolean coversAll(int[] vertices, int count) {
+        for (int k = 0; k < count; k++) {
+            if (coverCount[vertices[k]] == 0) return false;
+        }
+        return true;
+    }
+
+    private void add(int d) {
+        isDominator.add(d);
+        dominatorPos[d] = dominatorCount;
+        dominators[dominatorCount++] = d;
+        freedCount = 0;
+        int[] offsets = graph.heapOffsets;
+        if (offsets != null) {
+            int[] targets = graph.heapTargets;
+            for (int i = offsets[d], end = offsets[d + 1]; i < end; i++) {
+                coverAdded(targets[i], d);
+            }
+        } else {
+            for (int i = graph.start(d), end = graph.end(d); i < end; i++) {
+                coverAdded(graph.target(i), d);
+            }
+        }
+    }
+
+    private void coverAdded(int x, int d) {
+        int count = ++coverCount[x];
+        coverXor[x] ^= d;
+        if (count == 1) {
+            privateCount[d]++;
+        } else if (count == 2) {
+            int other = coverXor[x] ^ d;
+            if (--privateCount[other] == 0) {
+                freed[freedCount++] = other;
+            }
+        }
+    }
+
+    private void remove(int d) {
+        isDominator.remove(d);
+        int last = dominators[--dominatorCount];
+        dominators[dominatorPos[d]] = last;
+        dominatorPos[last] = dominatorPos[d];
+        int[] offsets = graph.heapOffsets;
+        if (offsets != null) {
+            int[] targets = graph.heapTargets;
+            for (int i = offsets[d], end = offsets[d + 1]; i < end; i++) {
+                coverRemoved(targets[i], d);
+            }
+        } else {
+            for (int i = graph.start(d), end = graph.end(d); i < end; i++) {
+                coverRemoved(graph.target(i), d);
+            }
+        }
+    }
+
+    private void coverRemoved(int x, int d) {
+        int count = --coverCount[x];
+        coverXor[x] ^= d;
+        if (count == 0) {
+            privateCount[d]--;
+        } else if (count == 1) {
+            privateCount[coverXor[x]]++;
+        }
+    }
+}
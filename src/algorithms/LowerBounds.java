@@ -0,0 +1,52 @@
+package algorithms;
+
+// cheap lower bounds on the domination number
+final class LowerBounds {
+    private LowerBounds() {
+    }
+
+    static int of(Graph graph) {
+        return Math.max(degreeBound(graph), packingBound(graph));
+    }
+
+    // no dominator covers more than its closed neighborhood
+    static int degreeBound(Graph graph) {
+        int maxDegree = 1;
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            maxDegree = Math.max(maxDegree, graph.degree(v));
+        }
+        return (graph.vertexCount() + maxDegree - 1) / maxDegree;
+    }
+
+    // vertices with pairwise disjoint closed neighborhoods each need their own dominator,
+    // a greedy packing taking low degree vertices first is usually the stronger bound on unit disk graphs
+    static int packingBound(Graph graph) {
+        int n = graph.vertexCount();
+        int maxDegree = 0;
+        for (int v = 0; v < n; v++) {
+            maxDegree = Math.max(maxDegree, graph.degree(v));
+        }
+        // counting sort by degree
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < n; v++) {
+            start[graph.degree(v) + 1]++;
+        }
+        for (int d = 1; d < start.length; d++) {
+            start[d] += start[d - 1];
+        }
+        int[] order = new int[n];
+        for (int v = 0; v < n; v++) {
+            order[start[graph.degree(v)]++] = v;
+        }
+
+        PointSet blocked = new PointSet(n);
+        int count = 0;
+        for (int v: order) {
+            if (blocked.countNeighborhood(graph, v) == 0) {
+                blocked.orNeighborhood(graph, v);
+                count++;
+            }
+        }
+        return count;
+    }
+}
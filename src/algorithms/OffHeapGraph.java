@@ -0,0 +1,166 @@
+package algorithms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Graph whose offsets and neighbor lists live outside of the java heap, so a huge graph is neither scanned nor moved
+// by the collector: in direct buffers, or in memory mapped temporary files of a directory (see GraphStorage)
+// every array is cut into power of two chunks, a single buffer can't hold more than 2GB, and it grows a chunk at a time
+// while the neighbor lists are written, so the build needs no second pass to size it
+// the workers read the buffers in place with absolute gets, which don't touch the buffer state, so no copies per thread
+final class OffHeapGraph extends Graph {
+    private final Ints offsets;
+    private final Ints targets;
+
+    private OffHeapGraph(Ints offsets, Ints targets, int vertexCount) {
+        super(vertexCount);
+        this.offsets = offsets;
+        this.targets = targets;
+    }
+
+    // the neighbor lists are read through int indices (see Graph.target), so they can't hold more entries than this
+    static final long MAX_TARGETS = Integer.MAX_VALUE;
+
+    // same graph as Graph.build, directory is where the mapped files go, or null for direct buffers
+    // fails with an IllegalArgumentException once the neighbor lists outgrow MAX_TARGETS, instead of wrapping around
+    static OffHeapGraph build(int[] xs, int[] ys, int count, int edgeThreshold, Path directory) {
+        Ints offsets = null, targets = null;
+        try {
+            offsets = new Ints(count + 1L, directory);
+            targets = new Ints(Math.max(16, count * 8L), directory);
+            Scan scan = new Scan(xs, ys, count, edgeThreshold);
+            int[] neighbors = new int[scan.maxNeighbors()];
+            long size = 0;
+            offsets.put(0, 0);
+            for (int p = 0; p < count; p++) {
+                int degree = scan.neighbors(p, neighbors, 0);
+                if (size + degree > MAX_TARGETS) {
+                    throw new IllegalArgumentException("the neighbor lists of " + count + " points at edge threshold " + edgeThreshold
+                            + " have more than " + MAX_TARGETS + " entries (reached at point " + p + "), more than int indices address");
+                }
+                targets.put((int) size, neighbors, degree);
+                size += degree;
+                offsets.put(p + 1, (int) size);
+            }
+            return new OffHeapGraph(offsets, targets, count);
+        } catch (IOException e) {
+            release(offsets, targets);
+            throw new UncheckedIOException("unable to map the graph in " + directory, e);
+        } catch (RuntimeException | Error e) {
+            release(offsets, targets);
+            throw e;
+        }
+    }
+
+    private static void release(Ints offsets, Ints targets) {
+        if (offsets != null) offsets.release();
+        if (targets != null) targets.release();
+    }
+
+    @Override
+    int start(int v) {
+        return offsets.get(v);
+    }
+
+    @Override
+    int end(int v) {
+        return offsets.get(v + 1);
+    }
+
+    @Override
+    int target(int i) {
+        return targets.get(i);
+    }
+
+    @Override
+    Graph component(int[] vertices, int[] localId) {
+        return new SubgraphView(this, vertices, localId);
+    }
+
+    // drops the buffers and deletes the files, the memory itself goes back once the buffers are collected
+    // (there is no way to free a direct or mapped buffer explicitly before the foreign memory api)
+    @Override
+    void release() {
+        release(offsets, targets);
+    }
+
+    // growable int array in chunks of 2^shift ints, chunk c is ints [c << shift, (c + 1) << shift)
+    // in a directory every array is one file, chunk c mapped at byte (c << shift) * 4, the file grows with the mappings
+    private static final class Ints {
+        private static final int MIN_SHIFT = 12;
+        private static final int MAX_SHIFT = 26; // 256MB chunks
+
+        private final int shift;
+        private final int mask;
+        private final FileChannel channel;
+        private final Path file;
+        private IntBuffer[] chunks = new IntBuffer[0];
+
+        // expected is a size hint, chunks are about that big for small arrays
+        Ints(long expected, Path directory) throws IOException {
+            shift = Math.max(MIN_SHIFT, Math.min(MAX_SHIFT, 64 - Long.numberOfLeadingZeros(Math.max(1, expected - 1))));
+            mask = (1 << shift) - 1;
+            if (directory != null) {
+                file = Files.createTempFile(directory, "graph", ".ints");
+                channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } else {
+                file = null;
+                channel = null;
+            }
+        }
+
+        int get(int i) {
+            return chunks[i >>> shift].get(i & mask);
+        }
+
+        void put(int i, int value) throws IOException {
+            chunk(i >>> shift).put(i & mask, value);
+        }
+
+        // source[0 .. length) to [at, at + length), across chunk borders if need be
+        void put(int at, int[] source, int length) throws IOException {
+            for (int done = 0; done < length; ) {
+                int i = at + done;
+                int chunkLength = Math.min(length - done, (1 << shift) - (i & mask));
+                chunk(i >>> shift).put(i & mask, source, done, chunkLength);
+                done += chunkLength;
+            }
+        }
+
+        private IntBuffer chunk(int c) throws IOException {
+            if (c >= chunks.length) {
+                int old = chunks.length;
+                chunks = Arrays.copyOf(chunks, c + 1);
+                for (int k = old; k <= c; k++) {
+                    long bytes = 4L << shift;
+                    ByteBuffer buffer = channel == null
+                            ? ByteBuffer.allocateDirect((int) bytes)
+                            : channel.map(FileChannel.MapMode.READ_WRITE, k * bytes, bytes);
+                    chunks[k] = buffer.order(ByteOrder.nativeOrder()).asIntBuffer();
+                }
+            }
+            return chunks[c];
+        }
+
+        void release() {
+            chunks = new IntBuffer[0];
+            if (channel != null) {
+                try {
+                    channel.close();
+                    // a mapped file can be deleted while mapped, the pages stay until the mapping goes away
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // only a temporary file left behind
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package algorithms;
+
+import java.util.Arrays;
+
+// set of vertex ids backed by a long[] bitset
+// iteration goes word by word with nextSetBit, copies and the bulk operations are plain word loops,
+// so a preallocated instance can be reused for every construction without allocating anything
+final class PointSet {
+    private final long[] words;
+    private final int capacity;
+    private int size;
+
+    PointSet(int capacity) {
+        this.capacity = capacity;
+        this.words = new long[(capacity + 63) >>> 6];
+    }
+
+    PointSet(PointSet other) {
+        this(other.capacity);
+        copyFrom(other);
+    }
+
+    int capacity() {
+        return capacity;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int id) {
+        return (words[id >>> 6] & (1L << id)) != 0;
+    }
+
+    boolean add(int id) {
+        long word = words[id >>> 6];
+        long updated = word | (1L << id);
+        if (word == updated) return false;
+        words[id >>> 6] = updated;
+        size++;
+        return true;
+    }
+
+    boolean remove(int id) {
+        long word = words[id >>> 6];
+        long updated = word & ~(1L << id);
+        if (word == updated) return false;
+        words[id >>> 6] = updated;
+        size--;
+        return true;
+    }
+
+    void clear() {
+        Arrays.fill(words, 0L);
+        size = 0;
+    }
+
+    // every id below the capacity
+    void fill() {
+        Arrays.fill(words, -1L);
+        if ((capacity & 63) != 0) {
+            words[words.length - 1] = (1L << capacity) - 1;
+        }
+        size = capacity;
+    }
+
+    // both sets need the same capacity, which is always the case for sets of the same graph
+    void copyFrom(PointSet other) {
+        System.arraycopy(other.words, 0, words, 0, words.length);
+        size = other.size;
+    }
+
+    // first id >= from in the set, or -1
+    int nextSetBit(int from) {
+        if (from >= capacity) return -1;
+        int w = from >>> 6;
+        long word = words[w] & (-1L << from);
+        while (true) {
+            if (word != 0) {
+                return (w << 6) + Long.numberOfTrailingZeros(word);
+            }
+            if (++w == words.length) {
+                return -1;
+            }
+            word = words[w];
+        }
+    }
+
+    void or(PointSet other) {
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            words[w] |= other.words[w];
+            count += Long.bitCount(words[w]);
+        }
+        size = count;
+    }
+
+    void andNot(PointSet other) {
+        int count = 0;
+        for (int w = 0; w < words.length; w++) {
+            words[w] &= ~other.words[w];
+            count += Long.bitCount(words[w]);
+        }
+        size = count;
+    }
+
+    // adds the closed neighborhood of v
+    // the neighborhood loops read the arrays of a heap graph directly, see Graph.heapOffsets
+    void orNeighborhood(Graph graph, int v) {
+        int[] offsets = graph.heapOffsets;
+        if (offsets != null) {
+            int[] targets = graph.heapTargets;
+            for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                add(targets[i]);
+            }
+        } else {
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                add(graph.target(i));
+            }
+        }
+    }
+
+    // removes the closed neighborhood of v
+    void andNotNeighborhood(Graph graph, int v) {
+        int[] offsets = graph.heapOffsets;
+        if (offsets != null) {
+            int[] targets = graph.heapTargets;
+            for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                remove(targets[i]);
+            }
+        } else {
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                remove(graph.target(i));
+            }
+        }
+    }
+
+    // how many of the closed neighborhood of v are in the set
+    int countNeighborhood(Graph graph, int v) {
+        int[] offsets = graph.heapOffsets;
+        int count = 0;
+        if (offsets != null) {
+            int[] targets = graph.heapTargets;
+            for (int i = offsets[v], end = offsets[v + 1]; i < end; i++) {
+                if (contains(targets[i])) {
+                    count++;
+                }
+            }
+        } else {
+            for (int i = graph.start(v), end = graph.end(v); i < end; i++) {
+                if (contains(graph.target(i))) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    boolean containsAll(PointSet other) {
+        for (int w = 0; w < words.length; w++) {
+            if ((other.words[w] & ~words[w]) != 0) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PointSet pointSet)) return false;
+        return size == pointSet.size && Arrays.equals(words, pointSet.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
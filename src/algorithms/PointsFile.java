@@ -0,0 +1,269 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// loading and storing point sets as primitive coordinate arrays, without any java.awt.Point in between
+//
+// text format: the usual "x y" per line, memory mapped and parsed in place
+// binary format (.pointsb): little endian ints, the magic, the version, the point count, then all the x and all the y,
+// so a mapped file is read with two bulk copies
+public final class PointsFile {
+    public static final int MAGIC = 0x42535450; // "PTSB" in little endian
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    // mapped windows stay well below the 2GB limit of a MappedByteBuffer
+    private static final long WINDOW_BYTES = 1L << 30;
+    private static final int MAX_INT_CHARS = 11; // "-2147483648"
+
+    private PointsFile() {
+    }
+
+    // xs[i], ys[i] is point i, in file order
+    public record Points(int[] xs, int[] ys) {
+        public int count() {
+            return xs.length;
+        }
+    }
+
+    // two passes over the mapping: the first one counts the numbers (runs of digits), so the coordinates are parsed
+    // straight into arrays of the right size, without any intermediate buffer
+    public static Points readText(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long numbers = 0;
+            boolean inDigits = false;
+            for (long position = 0; position < size; position += WINDOW_BYTES) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, size - position));
+                for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+                    byte b = buffer.get(i);
+                    boolean digit = b >= '0' && b <= '9';
+                    if (digit && !inDigits) {
+                        numbers++;
+                    }
+                    inDigits = digit;
+                }
+            }
+            if ((numbers & 1) != 0) throw new IOException(file + ": odd number of coordinates");
+            if (numbers >> 1 > Integer.MAX_VALUE - 8) throw new IOException(file + ": too many points");
+
+            int[] xs = new int[(int) (numbers >> 1)], ys = new int[(int) (numbers >> 1)];
+            int count = 0;
+            // the parser state survives the window borders, so numbers may be split between two windows
+            long value = 0;
+            boolean inNumber = false, negative = false;
+            for (long position = 0; position < size; position += WINDOW_BYTES) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(WINDOW_BYTES, size - position));
+                for (int i = 0, limit = buffer.limit(); i < limit; i++) {
+                    byte b = buffer.get(i);
+                    if (b >= '0' && b <= '9') {
+                        value = value * 10 + (b - '0');
+                        inNumber = true;
+                        if (value > 1L + Integer.MAX_VALUE) throw new IOException(file + ": coordinate out of range at byte " + (position + i));
+                    } else if (b == '-' && !inNumber && !negative) {
+                        negative = true;
+                    } else if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+                        if (inNumber) {
+                            store(xs, ys, count++, toInt(value, negative, file), file);
+                            value = 0;
+                            inNumber = false;
+                            negative = false;
+                        } else if (negative) {
+                            throw new IOException(file + ": lone '-' at byte " + (position + i));
+                        }
+                    } else {
+                        throw new IOException(file + ": unexpected character '" + (char) b + "' at byte " + (position + i));
+                    }
+                }
+            }
+            if (inNumber) {
+                store(xs, ys, count++, toInt(value, negative, file), file);
+            } else if (negative) {
+                throw new IOException(file + ": lone '-' at the end of the file");
+            }
+            if (count != 2L * xs.length) throw new IOException(file + ": changed while being read");
+            return new Points(xs, ys);
+        }
+    }
+
+    // the even numbers are the x, the odd ones the y
+    private static void store(int[] xs, int[] ys, int index, int value, Path file) throws IOException {
+        if (index >> 1 >= xs.length) throw new IOException(file + ": changed while being read");
+        if ((index & 1) == 0) {
+            xs[index >> 1] = value;
+        } else {
+            ys[index >> 1] = value;
+        }
+    }
+
+    private static int toInt(long value, boolean negative, Path file) throws IOException {
+        long signed = negative ? -value : value;
+        if (signed > Integer.MAX_VALUE || signed < Integer.MIN_VALUE) throw new IOException(file + ": coordinate out of range");
+        return (int) signed;
+    }
+
+    public static Points readBinary(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) throw new IOException(file + ": not a points file, too short");
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+            header.order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt(0) != MAGIC) throw new IOException(file + ": not a points file, bad magic");
+            if (header.getInt(4) != VERSION) throw new IOException(file + ": unsupported version " + header.getInt(4));
+            int count = header.getInt(8);
+            if (count < 0 || channel.size() != HEADER_BYTES + 8L * count) throw new IOException(file + ": truncated or corrupt, " + count + " points announced");
+
+            int[] xs = new int[count], ys = new int[count];
+            readInts(channel, HEADER_BYTES, xs);
+            readInts(channel, HEADER_BYTES + 4L * count, ys);
+            return new Points(xs, ys);
+        }
+    }
+
+    private static void readInts(FileChannel channel, long position, int[] target) throws IOException {
+        long windowInts = WINDOW_BYTES >> 2;
+        for (int done = 0; done < target.length; ) {
+            int chunk = (int) Math.min(windowInts, target.length - done);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position + 4L * done, 4L * chunk);
+            IntBuffer ints = buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+            ints.get(target, done, chunk);
+            done += chunk;
+        }
+    }
+
+    public static void writeBinary(Path file, int[] xs, int[] ys) throws IOException {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        try (Writer writer = new Writer(file, xs.length, true)) {
+            writer.append(xs, ys, xs.length);
+        }
+    }
+
+    // the digits are written straight into a reused byte buffer, no strings per point
+    public static void writeText(Path file, int[] xs, int[] ys) throws IOException {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        try (Writer writer = new Writer(file, xs.length, false)) {
+            writer.append(xs, ys, xs.length);
+        }
+    }
+
+    // writes a file of count points a block at a time, for callers that never hold all of them in one pair of arrays
+    // (see PointsGenerator.generate(Path, ...)), close fails if fewer or more than count points were appended
+    static final class Writer implements AutoCloseable {
+        private final Path file;
+        private final int count;
+        private final boolean binary;
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private int written;
+
+        Writer(Path file, int count, boolean binary) throws IOException {
+            if (count < 0) throw new IllegalArgumentException("count must not be negative, got " + count);
+            this.file = file;
+            this.count = count;
+            this.binary = binary;
+            channel = binary
+                    ? FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                    : FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            if (binary) {
+                buffer = null;
+                MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+                header.order(ByteOrder.LITTLE_ENDIAN).putInt(0, MAGIC).putInt(4, VERSION).putInt(8, count);
+            } else {
+                buffer = ByteBuffer.allocate(1 << 20);
+            }
+        }
+
+        // picks the format from the extension
+        Writer(Path file, int count) throws IOException {
+            this(file, count, isBinary(file));
+        }
+
+        // the points xs[0 .. length), ys[0 .. length) after the ones appended so far
+        void append(int[] xs, int[] ys, int length) throws IOException {
+            if (length > count - written) throw new IOException(file + ": more than the " + count + " announced points");
+            if (binary) {
+                writeInts(channel, HEADER_BYTES + 4L * written, xs, length);
+                writeInts(channel, HEADER_BYTES + 4L * count + 4L * written, ys, length);
+            } else {
+                for (int i = 0; i < length; i++) {
+                    if (buffer.remaining() < 2 * MAX_INT_CHARS + 2) {
+                        flip(channel, buffer);
+                    }
+                    putInt(buffer, xs[i]);
+                    buffer.put((byte) ' ');
+                    putInt(buffer, ys[i]);
+                    buffer.put((byte) '\n');
+                }
+            }
+            written += length;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try (channel) {
+                if (buffer != null) {
+                    flip(channel, buffer);
+                }
+                if (written != count) throw new IOException(file + ": " + written + " points written, " + count + " announced");
+            }
+        }
+    }
+
+    private static void writeInts(FileChannel channel, long position, int[] source, int length) throws IOException {
+        long windowInts = WINDOW_BYTES >> 2;
+        for (int done = 0; done < length; ) {
+            int chunk = (int) Math.min(windowInts, length - done);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position + 4L * done, 4L * chunk);
+            buffer.order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().put(source, done, chunk);
+            done += chunk;
+        }
+    }
+
+    private static void putInt(ByteBuffer buffer, int value) {
+        long v = value;
+        if (v < 0) {
+            buffer.put((byte) '-');
+            v = -v;
+        }
+        int digits = 1;
+        for (long p = 10; p <= v; p *= 10) {
+            digits++;
+        }
+        int end = buffer.position() + digits;
+        for (int i = end - 1; i >= end - digits; i--) {
+            buffer.put(i, (byte) ('0' + v % 10));
+            v /= 10;
+        }
+        buffer.position(end);
+    }
+
+    private static void flip(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // picks the format from the extension
+    public static Points read(Path file) throws IOException {
+        return isBinary(file) ? readBinary(file) : readText(file);
+    }
+
+    public static void write(Path file, int[] xs, int[] ys) throws IOException {
+        if (isBinary(file)) {
+            writeBinary(file, xs, ys);
+        } else {
+            writeText(file, xs, ys);
+        }
+    }
+
+    private static boolean isBinary(Path file) {
+        return file.getFileName().toString().endsWith(".pointsb");
+    }
+}
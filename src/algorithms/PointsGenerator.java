@@ -0,0 +1,235 @@
+package algorithms;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+// seeded generator of uniform random instances with a minimum distance between the points, fast enough for millions of points
+// the plane is cut into horizontal stripes at least minDistance high, every stripe gets its share of the points
+// (proportional to its height) and its own random stream mix(seed, stripe), so the output only depends on the seed
+// and the parameters, not on the number of threads
+// the even stripes are filled in parallel first, they are too far apart to interfere, then the odd ones,
+// which also check the finished stripes above and below them
+// rejection uses a flat grid per stripe (cells at least minDistance wide, the points of a cell chained through int arrays),
+// so a candidate only looks at the 3x3 cells around it
+// a point that still can't be placed after MAX_ATTEMPTS tries is dropped, so a crowded plane gives fewer points
+//
+// java -cp javabeans:jars/supportGUI.jar algorithms.PointsGenerator -points 1000000 -width 44000 -height 28000 -out big.pointsb
+public final class PointsGenerator {
+    private static final int MAX_ATTEMPTS = 100;
+    // about this many points per stripe, enough stripes to keep every thread busy on large instances
+    private static final int STRIPE_POINTS = 1 << 15;
+    private static final int MAX_CELLS_PER_POINT = 2;
+
+    private final long seed;
+    private final ForkJoinPool pool;
+
+    public PointsGenerator(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+
+    public PointsGenerator(long seed, ForkJoinPool pool) {
+        this.seed = seed;
+        this.pool = pool;
+    }
+
+    // count points in [0, width) x [0, height), no two of them closer than minDistance (0 allows duplicates)
+    public PointsFile.Points generate(int count, int width, int height, int minDistance) {
+        Stripe[] stripes = stripes(count, width, height, minDistance);
+        int total = total(stripes);
+        int[] xs = new int[total], ys = new int[total];
+        int offset = 0;
+        for (Stripe stripe: stripes) {
+            System.arraycopy(stripe.xs, 0, xs, offset, stripe.size);
+            System.arraycopy(stripe.ys, 0, ys, offset, stripe.size);
+            offset += stripe.size;
+        }
+        return new PointsFile.Points(xs, ys);
+    }
+
+    // generates straight into a points file, text or .pointsb depending on the extension, returns the number of points
+    // the stripes are written one after the other and dropped, so the points are never copied into one pair of arrays
+    public int generate(Path file, int count, int width, int height, int minDistance) throws IOException {
+        Stripe[] stripes = stripes(count, width, height, minDistance);
+        int total = total(stripes);
+        try (PointsFile.Writer writer = new PointsFile.Writer(file, total)) {
+            for (int s = 0; s < stripes.length; s++) {
+                writer.append(stripes[s].xs, stripes[s].ys, stripes[s].size);
+                stripes[s] = null;
+            }
+        }
+        return total;
+    }
+
+    // the filled stripes, from the top of the plane to its bottom
+    private Stripe[] stripes(int count, int width, int height, int minDistance) {
+        if (count < 0) throw new IllegalArgumentException("count must not be negative, got " + count);
+        if (width < 1 || height < 1) throw new IllegalArgumentException("the plane must not be empty, got " + width + "x" + height);
+        if (minDistance < 0) throw new IllegalArgumentException("minDistance must not be negative, got " + minDistance);
+        int stripeCount = Math.max(1, Math.min(count / STRIPE_POINTS, height / Math.max(1, minDistance)));
+        Stripe[] stripes = new Stripe[stripeCount];
+        for (int s = 0; s < stripeCount; s++) {
+            int y0 = (int) ((long) height * s / stripeCount), y1 = (int) ((long) height * (s + 1) / stripeCount);
+            int quota = (int) ((long) count * (s + 1) / stripeCount - (long) count * s / stripeCount);
+            stripes[s] = new Stripe(s, y0, y1, width, quota, minDistance);
+        }
+        fill(stripes, 0);
+        fill(stripes, 1);
+        // every stripe is final now, the grids (up to 3 ints per point) aren't needed anymore
+        for (Stripe stripe: stripes) {
+            stripe.head = null;
+            stripe.next = null;
+        }
+        return stripes;
+    }
+
+    private static int total(Stripe[] stripes) {
+        int total = 0;
+        for (Stripe stripe: stripes) {
+            total += stripe.size;
+        }
+        return total;
+    }
+
+    private void fill(Stripe[] stripes, int parity) {
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (int s = parity; s < stripes.length; s += 2) {
+            Stripe stripe = stripes[s];
+            tasks.add(ForkJoinTask.adapt(() -> stripe.fill(stripes)));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    private final class Stripe {
+        final int index;
+        final int y0, y1, width;
+        final int quota;
+        final int minDistance;
+        final long squaredMin;
+        final int[] xs, ys;
+        int size;
+        // grid over [0, width) x [y0, y1), head[c] is the last point of cell c plus one, next[i] the one before point i plus one
+        final int cellSize, cols, rows;
+        int[] head, next;
+
+        Stripe(int index, int y0, int y1, int width, int quota, int minDistance) {
+            this.index = index;
+            this.y0 = y0;
+            this.y1 = y1;
+            this.width = width;
+            this.quota = quota;
+            this.minDistance = minDistance;
+            this.squaredMin = (long) minDistance * minDistance;
+            xs = new int[quota];
+            ys = new int[quota];
+            long cellSize = Math.max(1, minDistance);
+            long maxCells = Math.max(1, (long) quota * MAX_CELLS_PER_POINT);
+            while (((width + cellSize - 1) / cellSize) * ((y1 - y0 + cellSize - 1) / cellSize) > maxCells) {
+                cellSize <<= 1;
+            }
+            this.cellSize = (int) cellSize;
+            cols = (int) ((width + cellSize - 1) / cellSize);
+            rows = (int) Math.max(1, (y1 - y0 + cellSize - 1) / cellSize);
+            head = minDistance == 0 ? null : new int[cols * rows];
+            next = minDistance == 0 ? null : new int[quota];
+        }
+
+        void fill(Stripe[] stripes) {
+            SplittableRandom random = new SplittableRandom(Solver.mix(seed, index));
+            Stripe above = index > 0 ? stripes[index - 1] : null, below = index + 1 < stripes.length ? stripes[index + 1] : null;
+            // the neighbors are only finished (and checked) when this is an odd stripe
+            boolean checkNeighbors = (index & 1) == 1;
+            for (int i = 0; i < quota; i++) {
+                for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                    int x = random.nextInt(width), y = y0 + random.nextInt(y1 - y0);
+                    if (minDistance == 0) {
+                        add(x, y);
+                        break;
+                    }
+                    if (near(x, y) || checkNeighbors && (above != null && y - y0 < minDistance && above.near(x, y)
+                            || below != null && y1 - y <= minDistance && below.near(x, y))) {
+                        continue;
+                    }
+                    add(x, y);
+                    break;
+                }
+            }
+        }
+
+        private void add(int x, int y) {
+            xs[size] = x;
+            ys[size] = y;
+            if (head != null) {
+                int c = x / cellSize + (y - y0) / cellSize * cols;
+                next[size] = head[c];
+                head[c] = size + 1;
+            }
+            size++;
+        }
+
+        // true if some point of this stripe is closer than minDistance to (x, y), which may lie outside of the stripe
+        boolean near(int x, int y) {
+            int cx = x / cellSize;
+            int firstRow = (int) Math.max(0, Math.floorDiv((long) y - minDistance - y0, cellSize));
+            int lastRow = (int) Math.min(rows - 1, Math.floorDiv((long) y + minDistance - y0, cellSize));
+            for (int row = firstRow; row <= lastRow; row++) {
+                for (int col = Math.max(0, cx - 1); col <= Math.min(cols - 1, cx + 1); col++) {
+                    for (int p = head[col + row * cols]; p != 0; p = next[p - 1]) {
+                        long dx = xs[p - 1] - x, dy = ys[p - 1] - y;
+                        if (dx * dx + dy * dy < squaredMin) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int count = 1_000_000, width = 44_000, height = 28_000, minDistance = 1, threads = Runtime.getRuntime().availableProcessors();
+        long seed = 42;
+        Path out = null;
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 >= args.length) {
+                System.err.println("Option " + args[i] + " expects an argument but received none");
+                return;
+            }
+            try {
+                switch (args[i]) {
+                    case "-points" -> count = Integer.parseInt(args[i + 1]);
+                    case "-width" -> width = Integer.parseInt(args[i + 1]);
+                    case "-height" -> height = Integer.parseInt(args[i + 1]);
+                    case "-minDistance" -> minDistance = Integer.parseInt(args[i + 1]);
+                    case "-seed" -> seed = Long.parseLong(args[i + 1]);
+                    case "-threads" -> threads = Integer.parseInt(args[i + 1]);
+                    case "-out" -> out = Path.of(args[i + 1]);
+                    default -> {
+                        System.err.println("Unknown option " + args[i]);
+                        return;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                System.err.println("Invalid argument for option " + args[i] + ": " + args[i + 1]);
+                return;
+            }
+        }
+        if (out == null) {
+            System.err.println("Option -out <file> is required, .pointsb for the binary format");
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            long start = System.nanoTime();
+            int written = new PointsGenerator(seed, pool).generate(out, count, width, height, minDistance);
+            System.out.println(written + " points written to " + out + " in " + (System.nanoTime() - start) / 1_000_000 + " ms"
+                    + (written < count ? " (" + (count - written) + " could not be placed)" : ""));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package algorithms;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+// the parallel machinery a SearchStrategy drives, one per component searched by the solver
+// keeps the incumbent (initially all the vertices, or the warm start), the per worker engines and the statistics for the listener
+// every batch of restarts or perturbations runs on all the workers of the solver and is one round for the listener
+// the incumbent is published lock free during a batch, workers abandon a construction as soon as it can't beat it
+// and stop once it reaches stopSize (the lower bound or the target size)
+//
+// in deterministic mode a batch only depends on the incumbent before it and on the seed:
+// the restarts of batch b are numbered, restart k breaks its ties with the stream mix(mix(seed, b), k) whichever thread
+// claims it, constructions are only abandoned against the incumbent of the previous batch, and the batch keeps the
+// smallest result, the lowest number winning ties
+// reaching stopSize still ends a batch early, but only the restarts numbered after the first hit are skipped,
+// and the first hit is the result of the batch, so that doesn't depend on the scheduling either
+// the perturbation walks don't see each other during a batch, walk w is seeded from mix(seed, b) and w
+public final class SearchContext {
+    private static final com.sun.management.ThreadMXBean THREADS =
+            ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemorySupported() ? threads : null;
+
+    // the default of IteratedGreedy, small enough to keep most of a good warm start
+    private static final double WARM_DESTROY_FRACTION = 0.05;
+
+    private final Solver solver;
+    private final Graph graph;
+    private final long deadline;
+    private final int stopSize;
+    private final int otherSize;
+    private final long start;
+    private final long seed;
+    private final SolverListener listener;
+    private final int parallelism;
+    private final boolean deterministic;
+
+    // reused across batches, each one only ever touched by one task at a time
+    private final GreedyEngine[] engines;
+    private final LocalSearch[] searches;
+    private final DestroyRebuild[] rebuilds;
+    private final int[][] walks, walkScratch;
+    private final PointSet universe;
+    private final long[] constructions, abandoned, allocated;
+    // deterministic mode only: the best result of each worker with its number
+    // a worker stops claiming numbers after its first hit, so a hit always stays its best result
+    private final int[][] workerBest;
+    private final int[] workerBestIndex;
+
+    private int[] incumbent;
+    // the smallest set the search found itself, the restarts are abandoned against it rather than against the incumbent,
+    // so a good warm start doesn't cut every construction short, it only has to be beaten to count as an improvement
+    private int ownBest;
+    private boolean warmStarted;
+    private int batch;
+
+    // otherSize is what the rest of the graph adds to the total size reported to the listener, start is when the solve began
+    // initial is a warm start (vertex ids, not necessarily dominating) or null
+    SearchContext(Solver solver, Graph graph, long deadline, int stopSize, int otherSize, long start, long seed, SolverListener listener, int[] initial) {
+        this.solver = solver;
+        this.graph = graph;
+        this.deadline = deadline;
+        this.stopSize = stopSize;
+        this.otherSize = otherSize;
+        this.start = start;
+        this.seed = seed;
+        this.listener = listener;
+        this.parallelism = solver.getParallelism();
+        this.deterministic = solver.isDeterministic();
+        engines = new GreedyEngine[parallelism];
+        searches = new LocalSearch[parallelism];
+        rebuilds = new DestroyRebuild[parallelism];
+        walks = new int[parallelism][];
+        walkScratch = new int[parallelism][];
+        universe = new PointSet(graph.vertexCount());
+        universe.fill();
+        constructions = new long[parallelism];
+        abandoned = new long[parallelism];
+        allocated = new long[parallelism];
+        workerBest = new int[parallelism][];
+        workerBestIndex = new int[parallelism];
+        incumbent = new int[graph.vertexCount()];
+        for (int i = 0; i < incumbent.length; i++) {
+            incumbent[i] = i;
+        }
+        ownBest = incumbent.length;
+        if (initial != null) {
+            int[] warm = warmStart(initial);
+            if (warm.length < incumbent.length) {
+                incumbent = warm;
+                warmStarted = true;
+            }
+        }
+    }
+
+    // the distinct vertices of initial, plus a greedy cover of whatever they leave uncovered, through the local search
+    private int[] warmStart(int[] initial) {
+        startWork(0);
+        if (deterministic) {
+            engines[0].seed(Solver.mix(seed, -1));
+        }
+        int n = graph.vertexCount();
+        PointSet chosen = new PointSet(n);
+        PointSet uncovered = new PointSet(n);
+        uncovered.fill();
+        int[] set = new int[n];
+        int count = 0;
+        for (int v: initial) {
+            if (chosen.add(v)) {
+                set[count++] = v;
+                uncovered.andNotNeighborhood(graph, v);
+            }
+        }
+        int added = engines[0].complete(uncovered, Integer.MAX_VALUE, Solver.NO_DEADLINE);
+        for (int i = 0; i < added; i++) {
+            set[count++] = engines[0].dominator(i);
+        }
+        count = searches[0].improve(set, count);
+        return Arrays.copyOf(set, count);
+    }
+
+    public int incumbentSize() {
+        return incumbent.length;
+    }
+
+    // the search can stop once the incumbent is this small
+    public int stopSize() {
+        return stopSize;
+    }
+
+    // true if the incumbent came from a warm start rather than from all the vertices
+    public boolean warmStarted() {
+        return warmStarted;
+    }
+
+    // one batch of destroy and rebuild steps around a warm start (a no-op without one), the strategies that restart from
+    // scratch run it first, so the search begins next to the warm start instead of ignoring it until the first restart beats it
+    public int refineWarmStart(int stepsPerWorker) {
+        return warmStarted ? perturb(stepsPerWorker, WARM_DESTROY_FRACTION) : incumbent.length;
+    }
+
+    public boolean hasDeadline() {
+        return deadline != Solver.NO_DEADLINE;
+    }
+
+    public boolean finished() {
+        return incumbent.length <= stopSize || Solver.expired(deadline);
+    }
+
+    public int parallelism() {
+        return parallelism;
+    }
+
+    // since the start of the whole solve
+    public long elapsedNanos() {
+        return System.nanoTime() - start;
+    }
+
+    int[] incumbent() {
+        return incumbent;
+    }
+
+    // constructionsPerWorker greedy constructions from scratch on every worker, each polished by the local search,
+    // returns the incumbent size after the batch
+    public int restarts(int constructionsPerWorker) {
+        if (constructionsPerWorker < 1) throw new IllegalArgumentException("constructionsPerWorker must be at least 1, got " + constructionsPerWorker);
+        if (finished()) return incumbent.length;
+        AtomicReference<int[]> best = new AtomicReference<>(incumbent);
+        int prevSize = incumbent.length, boundSize = ownBest;
+        AtomicInteger own = new AtomicInteger(ownBest);
+        long batchSeed = Solver.mix(seed, batch);
+        long batchSize = (long) parallelism * constructionsPerWorker;
+        AtomicInteger nextIndex = new AtomicInteger();
+        AtomicInteger firstHit = new AtomicInteger(Integer.MAX_VALUE);
+        List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+        long batchStart = System.nanoTime();
+        for (int i = 0; i < parallelism; i++) {
+            int worker = i;
+            tasks.add(() -> {
+                long allocatedBefore = startWork(worker);
+                GreedyEngine engine = engines[worker];
+                LocalSearch search = searches[worker];
+                if (deterministic) {
+                    // every worker claims increasing numbers, so its first result of a size is the lowest numbered one
+                    for (int k = nextIndex.getAndIncrement(); k < batchSize && k < firstHit.get() && !Solver.expired(deadline);
+                         k = nextIndex.getAndIncrement()) {
+                        engine.seed(Solver.mix(batchSeed, k));
+                        int[] res = Solver.calculateSet(engine, search, universe, boundSize, deadline);
+                        constructions[worker]++;
+                        if (res == Solver.ABANDONED) {
+                            abandoned[worker]++;
+                        } else if (res != null && (workerBest[worker] == null || res.length < workerBest[worker].length)) {
+                            workerBest[worker] = res;
+                            workerBestIndex[worker] = k;
+                            if (res.length <= stopSize) {
+                                firstHit.accumulateAndGet(k, Math::min);
+                            }
+                        }
+                    }
+                } else {
+                    for (int j = 0; j < constructionsPerWorker; j++) {
+                        if (best.get().length <= stopSize || Solver.expired(deadline)) {
+                            break;
+                        }
+                        int[] res = Solver.calculateSet(engine, search, universe, own.get(), deadline);
+                        constructions[worker]++;
+                        if (res == Solver.ABANDONED) {
+                            abandoned[worker]++;
+                        } else if (res != null) {
+                            own.accumulateAndGet(res.length, Math::min);
+                            publish(best, res);
+                        }
+                    }
+                }
+                endWork(worker, allocatedBefore);
+                return null;
+            });
+        }
+        run(tasks);
+        if (!deterministic) {
+            ownBest = own.get();
+        }
+        return finishBatch(best, prevSize, firstHit.get(), batchStart);
+    }
+
+    // stepsPerWorker destroy and rebuild steps (see DestroyRebuild) on every worker, each worker walking from the incumbent
+    // and moving on whenever a step gives a set that's no bigger, returns the incumbent size after the batch
+    // outside of deterministic mode a walk jumps to the shared incumbent whenever that one is smaller
+    public int perturb(int stepsPerWorker, double destroyFraction) {
+        if (stepsPerWorker < 1) throw new IllegalArgumentException("stepsPerWorker must be at least 1, got " + stepsPerWorker);
+        if (!(destroyFraction > 0 && destroyFraction <= 1)) throw new IllegalArgumentException("destroyFraction must be in (0, 1], got " + destroyFraction);
+        if (finished()) return incumbent.length;
+        int[] from = incumbent;
+        AtomicReference<int[]> best = new AtomicReference<>(from);
+        long batchSeed = Solver.mix(seed, batch);
+        List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+        long batchStart = System.nanoTime();
+        for (int i = 0; i < parallelism; i++) {
+            int worker = i;
+            tasks.add(() -> {
+                long allocatedBefore = startWork(worker);
+                if (walks[worker] == null) {
+                    walks[worker] = new int[graph.vertexCount()];
+                    walkScratch[worker] = new int[graph.vertexCount()];
+                }
+                int[] walk = walks[worker], next = walkScratch[worker];
+                System.arraycopy(from, 0, walk, 0, from.length);
+                int count = from.length;
+                DestroyRebuild rebuild = rebuilds[worker];
+                if (deterministic) {
+                    engines[worker].seed(Solver.mix(batchSeed, 2L * worker));
+                    rebuild.seed(Solver.mix(batchSeed, 2L * worker + 1));
+                    workerBestIndex[worker] = worker;
+                }
+                for (int j = 0; j < stepsPerWorker && !Solver.expired(deadline); j++) {
+                    if (deterministic) {
+                        if (count <= stopSize) break;
+                    } else {
+                        int[] shared = best.get();
+                        if (shared.length <= stopSize) break;
+                        if (shared.length < count) {
+                            System.arraycopy(shared, 0, walk, 0, shared.length);
+                            count = shared.length;
+                        }
+                    }
+                    int size = rebuild.step(walk, count, next, destroyFraction, count + Solver.localSearchSlack(count), deadline);
+                    constructions[worker]++;
+                    if (size == -1) {
+                        abandoned[worker]++;
+                        continue;
+                    }
+                    if (size <= count) {
+                        int[] swap = walk;
+                        walk = next;
+                        next = swap;
+                        count = size;
+                        if (deterministic) {
+                            if (count < from.length && (workerBest[worker] == null || count < workerBest[worker].length)) {
+                                workerBest[worker] = Arrays.copyOf(walk, count);
+                            }
+                        } else if (count < best.get().length) {
+                            publish(best, Arrays.copyOf(walk, count));
+                        }
+                    }
+                }
+                walks[worker] = walk;
+                walkScratch[worker] = next;
+                endWork(worker, allocatedBefore);
+                return null;
+            });
+        }
+        run(tasks);
+        return finishBatch(best, from.length, Integer.MAX_VALUE, batchStart);
+    }
+
+    // per task setup, returns the allocation counter if the listener wants it
+    private long startWork(int worker) {
+        constructions[worker] = 0;
+        abandoned[worker] = 0;
+        workerBest[worker] = null;
+        if (engines[worker] == null) {
+            engines[worker] = new GreedyEngine(graph);
+            searches[worker] = new LocalSearch(graph);
+            rebuilds[worker] = new DestroyRebuild(graph, engines[worker], searches[worker]);
+        }
+        return listener == null ? 0 : allocatedBytes();
+    }
+
+    private void endWork(int worker, long allocatedBefore) {
+        if (listener != null) {
+            long allocatedAfter = allocatedBytes();
+            allocated[worker] = allocatedBefore < 0 || allocatedAfter < 0 ? -1 : allocatedAfter - allocatedBefore;
+        }
+    }
+
+    private void run(List<Callable<Void>> tasks) {
+        for (Future<Void> future: solver.invokeAll(tasks)) {
+            Solver.get(future);
+        }
+    }
+
+    // reduces the batch in deterministic mode, reports the round and moves the incumbent
+    private int finishBatch(AtomicReference<int[]> best, int prevSize, int firstHit, long batchStart) {
+        if (deterministic) {
+            int[] winner = reduce(best, firstHit);
+            if (winner != null) {
+                ownBest = Math.min(ownBest, winner.length);
+            }
+        }
+        int[] next = best.get();
+        if (next.length < prevSize) {
+            ownBest = Math.min(ownBest, next.length);
+        }
+        if (listener != null) {
+            if (deterministic && next.length < prevSize) {
+                listener.improved(otherSize + next.length, System.nanoTime() - start);
+            }
+            long constructionSum = 0, abandonedSum = 0, allocatedSum = 0;
+            for (int i = 0; i < parallelism; i++) {
+                constructionSum += constructions[i];
+                abandonedSum += abandoned[i];
+                allocatedSum = allocatedSum < 0 || allocated[i] < 0 ? -1 : allocatedSum + allocated[i];
+            }
+            listener.roundFinished(new SolverListener.RoundStats(batch, parallelism, constructionSum, abandonedSum,
+                    System.nanoTime() - batchStart, allocatedSum, otherSize + next.length));
+        }
+        batch++;
+        incumbent = next;
+        return incumbent.length;
+    }
+
+    // the deterministic result of a batch: the first hit if there was one (everything numbered before it is bigger than stopSize),
+    // otherwise the smallest result with the lowest number, it becomes the incumbent if it's better
+    private int[] reduce(AtomicReference<int[]> best, int firstHit) {
+        int[] winner = null;
+        int winnerIndex = Integer.MAX_VALUE;
+        for (int w = 0; w < parallelism; w++) {
+            if (firstHit != Integer.MAX_VALUE) {
+                if (workerBest[w] != null && workerBestIndex[w] == firstHit) {
+                    winner = workerBest[w];
+                }
+            } else if (workerBest[w] != null && (winner == null || workerBest[w].length < winner.length
+                    || workerBest[w].length == winner.length && workerBestIndex[w] < winnerIndex)) {
+                winner = workerBest[w];
+                winnerIndex = workerBestIndex[w];
+            }
+        }
+        if (winner != null) {
+            publish(best, winner);
+        }
+        return winner;
+    }
+
+    // true if candidate became the incumbent, the listener hears about it right away outside of deterministic mode
+    private boolean publish(AtomicReference<int[]> best, int[] candidate) {
+        int[] current = best.get();
+        while (candidate.length < current.length) {
+            if (best.compareAndSet(current, candidate)) {
+                if (listener != null && !deterministic) {
+                    listener.improved(otherSize + candidate.length, System.nanoTime() - start);
+                }
+                return true;
+            }
+            current = best.get();
+        }
+        return false;
+    }
+
+    private static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,9 @@
+package algorithms;
+
+// drives the heuristic search of one component: decides how many batches of restarts or perturbations to run,
+// how big they are and when to stop, the SearchContext does the parallel work and keeps the incumbent
+// a strategy has no state of its own per search, so one instance can be shared by solvers and by concurrent solves
+// the search may end at any point, the incumbent is always a valid dominating set
+public interface SearchStrategy {
+    void search(SearchContext context);
+}
@@ -0,0 +1,12 @@
+package algorithms;
+
+// dominators as vertex ids plus a lower bound on the domination number of the graph they were computed for
+final class Solution {
+    final int[] dominators;
+    final int lowerBound;
+
+    Solution(int[] dominators, int lowerBound) {
+        this.dominators = dominators;
+        this.lowerBound = lowerBound;
+    }
+}
@@ -0,0 +1,287 @@
+package algorithms;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// optional cache of solved instances in front of DefaultTeam (see DefaultTeam.setCache), for callers that send the same
+// instances again and again
+// the key is an order independent fingerprint of the deduplicated points (two sums of a per point hash, so a shuffled
+// file gives the same key) plus the point count and the edge threshold
+// an entry keeps the dominators as coordinates, so a hit maps back onto the points whatever their order, and every hit
+// is validated against the points it's returned for: a stale file or two point sets with the same key is a miss, never
+// a wrong answer
+// in memory the least recently used entries are evicted past capacity, with a directory every entry is also written
+// there (one small binary file per key) and read back on a miss, so the entries survive restarts
+// the disk is best effort, a file that can't be read or written only costs the search (see getDiskErrors)
+public final class SolutionCache {
+    private static final int MAGIC = 0x45435344; // "DSCE" in little endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+
+    private final int capacity;
+    private final Path directory;
+    // access ordered, so the eldest entry is the least recently used one
+    private final LinkedHashMap<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder diskErrors = new LongAdder();
+
+    public record Key(long hash0, long hash1, int count, int edgeThreshold) {
+    }
+
+    // the dominators' coordinates and the lower bound that was computed with them
+    // ids is the set as ids into the points of its last hit (or of its put), null until then
+    static final class Entry {
+        final int[] xs, ys;
+        final int lowerBound;
+        volatile int[] ids;
+
+        Entry(int[] xs, int[] ys, int lowerBound) {
+            this.xs = xs;
+            this.ys = ys;
+            this.lowerBound = lowerBound;
+        }
+    }
+
+    public SolutionCache(int capacity) {
+        this(capacity, null);
+    }
+
+    // directory is created if needed, null keeps the cache in memory only
+    public SolutionCache(int capacity, Path directory) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be at least 1, got " + capacity);
+        this.capacity = capacity;
+        this.directory = directory;
+        if (directory != null) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("unable to create the cache directory " + directory, e);
+            }
+        }
+        entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > SolutionCache.this.capacity;
+            }
+        };
+    }
+
+    // the points must be distinct (DefaultTeam deduplicates them first), only their first count are hashed
+    public static Key key(int[] xs, int[] ys, int count, int edgeThreshold) {
+        long hash0 = 0, hash1 = 0;
+        for (int i = 0; i < count; i++) {
+            long packed = ((long) xs[i] << 32) | (ys[i] & 0xffffffffL);
+            hash0 += Solver.mix(packed, 0);
+            hash1 += Solver.mix(packed, 1);
+        }
+        return new Key(hash0, hash1, count, edgeThreshold);
+    }
+
+    // the cached set as ids into xs/ys (the points the key was computed from), or null on a miss
+    // the ids of the last hit are kept with the entry, so the same points in the same order skip the remapping (only
+    // checked in O(size of the set)), the set is validated against xs/ys on every hit, O(n) but nothing next to a solve
+    // an entry that never validated (a stale file) is dropped, one that did stays for the points it belongs to
+    Solution lookup(Key key, int[] xs, int[] ys) {
+        Entry entry = get(key);
+        if (entry != null) {
+            int[] ids = entry.ids;
+            boolean validated = ids != null;
+            if (ids == null || !pointsAt(ids, entry, xs, ys)) {
+                ids = indicesOf(xs, ys, key.count(), entry);
+            }
+            if (ids != null && Validator.uncovered(xs, ys, ids, key.edgeThreshold()).length == 0) {
+                entry.ids = ids;
+                hits.increment();
+                return new Solution(ids.clone(), entry.lowerBound);
+            }
+            if (!validated) {
+                remove(key);
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    private static boolean pointsAt(int[] ids, Entry entry, int[] xs, int[] ys) {
+        for (int d = 0; d < ids.length; d++) {
+            int v = ids[d];
+            if (v >= xs.length || xs[v] != entry.xs[d] || ys[v] != entry.ys[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // dominators are ids into xs/ys, an existing entry is only replaced by a smaller set, a set that doesn't dominate isn't stored
+    void put(Key key, int[] xs, int[] ys, Solution solution) {
+        if (Validator.uncovered(xs, ys, solution.dominators, key.edgeThreshold()).length != 0) {
+            return;
+        }
+        int[] domXs = new int[solution.dominators.length], domYs = new int[solution.dominators.length];
+        for (int i = 0; i < domXs.length; i++) {
+            domXs[i] = xs[solution.dominators[i]];
+            domYs[i] = ys[solution.dominators[i]];
+        }
+        Entry entry = new Entry(domXs, domYs, solution.lowerBound);
+        entry.ids = solution.dominators.clone();
+        synchronized (entries) {
+            Entry previous = entries.get(key);
+            if (previous != null && previous.xs.length <= domXs.length) {
+                return;
+            }
+            entries.put(key, entry);
+        }
+        if (directory != null) {
+            try {
+                write(key, entry);
+            } catch (IOException e) {
+                diskErrors.increment();
+            }
+        }
+    }
+
+    private Entry get(Key key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null || directory == null) {
+                return entry;
+            }
+        }
+        Entry entry;
+        try {
+            entry = read(key);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            diskErrors.increment();
+            return null;
+        }
+        synchronized (entries) {
+            entries.putIfAbsent(key, entry);
+        }
+        return entry;
+    }
+
+    private void remove(Key key) {
+        synchronized (entries) {
+            entries.remove(key);
+        }
+        if (directory != null) {
+            try {
+                Files.deleteIfExists(file(key));
+            } catch (IOException e) {
+                diskErrors.increment();
+            }
+        }
+    }
+
+    // ids of the entry's dominators among the first count points, null if one of them isn't there
+    // open addressing over the packed coordinates, like DefaultTeam.firstOccurrences
+    private static int[] indicesOf(int[] xs, int[] ys, int count, Entry entry) {
+        int capacity = Integer.highestOneBit(Math.max(2, count) * 2 - 1) << 1;
+        int shift = 64 - Integer.numberOfTrailingZeros(capacity);
+        long[] keys = new long[capacity];
+        int[] ids = new int[capacity];
+        for (int i = 0; i < count; i++) {
+            long key = ((long) xs[i] << 32) | (ys[i] & 0xffffffffL);
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (ids[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            keys[slot] = key;
+            ids[slot] = i + 1;
+        }
+        int[] res = new int[entry.xs.length];
+        for (int d = 0; d < res.length; d++) {
+            long key = ((long) entry.xs[d] << 32) | (entry.ys[d] & 0xffffffffL);
+            int slot = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+            while (ids[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (ids[slot] == 0) {
+                return null;
+            }
+            res[d] = ids[slot] - 1;
+        }
+        return res;
+    }
+
+    private Path file(Key key) {
+        return directory.resolve(String.format("%016x%016x-%d-%d.domset", key.hash0(), key.hash1(), key.count(), key.edgeThreshold()));
+    }
+
+    // little endian ints: the magic, the version, the lower bound, the size, then all the x and all the y
+    // written to a temporary file first and moved in place, so a reader never sees half an entry
+    private void write(Key key, Entry entry) throws IOException {
+        int size = entry.xs.length;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 8 * size).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(entry.lowerBound).putInt(size);
+        buffer.asIntBuffer().put(entry.xs).put(entry.ys);
+        buffer.rewind();
+        Path tmp = Files.createTempFile(directory, "entry", ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+            Files.move(tmp, file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private Entry read(Key key) throws IOException {
+        Path file = file(key);
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC) throw new IOException(file + ": not a cache entry");
+        if (buffer.getInt() != VERSION) throw new IOException(file + ": unsupported version");
+        int lowerBound = buffer.getInt(), size = buffer.getInt();
+        if (size < 0 || buffer.remaining() != 8L * size) throw new IOException(file + ": truncated or corrupt, " + size + " dominators announced");
+        int[] xs = new int[size], ys = new int[size];
+        buffer.asIntBuffer().get(xs).get(ys);
+        return new Entry(xs, ys, lowerBound);
+    }
+
+    // entries in memory, the directory may hold more
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    // empties the memory, the files stay
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getDiskErrors() {
+        return diskErrors.sum();
+    }
+}
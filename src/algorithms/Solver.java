@@ -0,0 +1,357 @@
+package algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// long lived owner of the worker threads, meant to be reused for any number of instances
+// the threads are daemons so a forgotten solver never keeps the jvm alive, but close() should still be called
+//
+// a solver built with a seed is deterministic: the same graph, seed, parallelism and search strategy always give the same
+// search trajectory and the same result, whatever the thread scheduling (as long as no deadline cuts the search short)
+public final class Solver implements AutoCloseable {
+    static final long NO_DEADLINE = Long.MAX_VALUE;
+
+    private static final AtomicInteger poolCounter = new AtomicInteger();
+
+    // returned by calculateSet for constructions that gave up early
+    static final int[] ABANDONED = new int[0];
+
+    private final ExecutorService pool;
+    private final int parallelism;
+    private final int itPerThread;
+    private final boolean deterministic;
+    private final long seed;
+    private volatile SolverListener listener;
+    private volatile SearchStrategy strategy;
+    private volatile GraphStorage graphStorage = GraphStorage.heap();
+
+    public Solver() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1)); // generously leave one processor alone
+    }
+
+    public Solver(int parallelism) {
+        this(parallelism, 200);
+    }
+
+    public Solver(int parallelism, int itPerThread) {
+        this(parallelism, itPerThread, false, 0);
+    }
+
+    // deterministic solver, see above
+    public Solver(int parallelism, int itPerThread, long seed) {
+        this(parallelism, itPerThread, true, seed);
+    }
+
+    private Solver(int parallelism, int itPerThread, boolean deterministic, long seed) {
+        if (parallelism < 1) throw new IllegalArgumentException("parallelism must be at least 1, got " + parallelism);
+        if (itPerThread < 1) throw new IllegalArgumentException("itPerThread must be at least 1, got " + itPerThread);
+        this.parallelism = parallelism;
+        this.itPerThread = itPerThread;
+        this.deterministic = deterministic;
+        this.seed = seed;
+        this.strategy = new FixedRounds(itPerThread);
+        int poolId = poolCounter.incrementAndGet();
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.pool = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread thread = new Thread(r, "solver-" + poolId + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getItPerThread() {
+        return itPerThread;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    // only meaningful for a deterministic solver
+    public long getSeed() {
+        return seed;
+    }
+
+    public SearchStrategy getStrategy() {
+        return strategy;
+    }
+
+    // the strategy of the following solves, the default is FixedRounds(itPerThread)
+    public void setStrategy(SearchStrategy strategy) {
+        if (strategy == null) throw new IllegalArgumentException("strategy must not be null");
+        this.strategy = strategy;
+    }
+
+    public GraphStorage getGraphStorage() {
+        return graphStorage;
+    }
+
+    // where the graphs of the following solves are kept, see GraphStorage
+    public void setGraphStorage(GraphStorage graphStorage) {
+        if (graphStorage == null) throw new IllegalArgumentException("graphStorage must not be null");
+        this.graphStorage = graphStorage;
+    }
+
+    public SolverListener getListener() {
+        return listener;
+    }
+
+    // null to switch the events off again
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    // builds the graph in the storage of the solver and reports its stats to the listener if there is one
+    // the caller releases it once it's done with it
+    Graph buildGraph(int[] xs, int[] ys, int count, int edgeThreshold) {
+        SolverListener listener = this.listener;
+        long start = System.nanoTime();
+        Graph graph = graphStorage.build(xs, ys, count, edgeThreshold);
+        reportGraph(listener, graph, System.nanoTime() - start);
+        return graph;
+    }
+
+    // the graphs of several thresholds on the same points, see Graph.buildAll
+    // they come from one shared build, so every one of them is reported with the time of the whole build
+    // the shared build sorts the neighbor lists on the heap, so with an off-heap storage every threshold is built
+    // on its own, straight into the storage, the caller releases each one once it's done with it
+    Graph[] buildGraphs(int[] xs, int[] ys, int count, int[] edgeThresholds) {
+        GraphStorage graphStorage = this.graphStorage;
+        if (graphStorage.isOffHeap()) {
+            Graph[] graphs = new Graph[edgeThresholds.length];
+            for (int i = 0; i < graphs.length; i++) {
+                graphs[i] = buildGraph(xs, ys, count, edgeThresholds[i]);
+            }
+            return graphs;
+        }
+        SolverListener listener = this.listener;
+        long start = System.nanoTime();
+        Graph[] graphs = Graph.buildAll(xs, ys, count, edgeThresholds);
+        long buildNanos = System.nanoTime() - start;
+        for (Graph graph: graphs) {
+            reportGraph(listener, graph, buildNanos);
+        }
+        return graphs;
+    }
+
+    // the graphBuilt event for every graph built outside of buildGraph too (TiledSolver), nothing without a listener
+    static void reportGraph(SolverListener listener, Graph graph, long buildNanos) {
+        if (listener != null) {
+            int n = graph.vertexCount(), maxDegree = 0;
+            for (int v = 0; v < n; v++) {
+                maxDegree = Math.max(maxDegree, graph.degree(v) - 1);
+            }
+            int[] histogram = new int[maxDegree + 1];
+            for (int v = 0; v < n; v++) {
+                histogram[graph.degree(v) - 1]++;
+            }
+            long edges = (graph.targetCount() - n) / 2L;
+            listener.graphBuilt(new SolverListener.GraphStats(n, edges, maxDegree, n == 0 ? 0 : 2.0 * edges / n, histogram, buildNanos));
+        }
+    }
+
+    Solution solve(Graph graph) {
+        return solve(graph, NO_DEADLINE, 0);
+    }
+
+    // the random inputs often fall apart into many components, those are solved independently:
+    // components of at most ExactSolver.MAX_VERTICES vertices exactly, spread over the pool,
+    // the bigger ones one after the other with gamble, which uses the whole pool by itself
+    // the lower bound is the sum of the per component bounds (their exact value when the branch and bound finished)
+    // deadline is System.nanoTime based or NO_DEADLINE, targetSize stops the search once the total is at most targetSize
+    Solution solve(Graph graph, long deadline, int targetSize) {
+        return solve(graph, deadline, targetSize, null);
+    }
+
+    // same, warm started from initial (vertex ids, or null): the gamble components start their search from
+    // its part in them (repaired if it doesn't dominate them, then polished) instead of from all their vertices
+    Solution solve(Graph graph, long deadline, int targetSize, int[] initial) {
+        long start = System.nanoTime();
+        SolverListener listener = this.listener;
+        if (listener != null) {
+            listener.solveStarted(graph.vertexCount());
+        }
+        int[][] components = graph.components();
+        int[] localId = new int[graph.vertexCount()];
+        Graph[] subgraphs = new Graph[components.length];
+        for (int c = 0; c < components.length; c++) {
+            subgraphs[c] = components.length == 1 ? graph : graph.component(components[c], localId);
+        }
+        int[][] initialParts = initial == null ? null : split(initial, components, localId);
+        int[][] results = new int[components.length][];
+        int[] bounds = new int[components.length];
+
+        List<List<Integer>> chunks = new ArrayList<>(parallelism);
+        for (int i = 0; i < parallelism; i++) {
+            chunks.add(new ArrayList<>());
+        }
+        int smallCount = 0;
+        for (int c = 0; c < components.length; c++) {
+            if (components[c].length <= ExactSolver.MAX_VERTICES) {
+                chunks.get(smallCount++ % parallelism).add(c);
+            }
+        }
+        List<Callable<Void>> tasks = new ArrayList<>(parallelism);
+        for (List<Integer> chunk: chunks) {
+            if (chunk.isEmpty()) continue;
+            tasks.add(() -> {
+                ExactSolver exact = new ExactSolver();
+                for (int c: chunk) {
+                    exact.reset(subgraphs[c]);
+                    results[c] = exact.solve(deadline);
+                    bounds[c] = exact.provenOptimal() ? results[c].length : Math.max(exact.lowerBound(), LowerBounds.of(subgraphs[c]));
+                }
+                return null;
+            });
+        }
+        for (Future<Void> future: invokeAll(tasks)) {
+            get(future);
+        }
+
+        // remainingSize is what the unsolved components contribute to the current total, all their vertices for now
+        int fixed = 0, remainingBound = 0, remainingSize = 0;
+        for (int c = 0; c < components.length; c++) {
+            if (results[c] != null) {
+                fixed += results[c].length;
+            } else {
+                bounds[c] = LowerBounds.of(subgraphs[c]);
+                remainingBound += bounds[c];
+                remainingSize += initialParts == null ? components[c].length : Math.min(components[c].length, initialParts[c].length);
+            }
+        }
+        for (int c = 0; c < components.length; c++) {
+            if (results[c] != null) continue;
+            remainingBound -= bounds[c];
+            remainingSize -= initialParts == null ? components[c].length : Math.min(components[c].length, initialParts[c].length);
+            results[c] = gamble(subgraphs[c], deadline, targetSize - fixed - remainingBound, bounds[c], fixed + remainingSize, start,
+                    mix(seed, c), initialParts == null ? null : initialParts[c]);
+            fixed += results[c].length;
+        }
+
+        int[] dominators = new int[fixed];
+        int size = 0, lowerBound = 0;
+        for (int c = 0; c < components.length; c++) {
+            for (int v: results[c]) {
+                dominators[size++] = components.length == 1 ? v : components[c][v];
+            }
+            lowerBound += bounds[c];
+        }
+        if (listener != null) {
+            listener.solveFinished(dominators.length, lowerBound, System.nanoTime() - start);
+        }
+        return new Solution(dominators, lowerBound);
+    }
+
+    // the vertices of initial per component, as ids of the component's subgraph (localId as filled by subgraph)
+    private static int[][] split(int[] initial, int[][] components, int[] localId) {
+        int[] componentOf = new int[localId.length];
+        for (int c = 0; c < components.length; c++) {
+            for (int v: components[c]) {
+                componentOf[v] = c;
+            }
+        }
+        int[] counts = new int[components.length];
+        for (int v: initial) {
+            counts[componentOf[v]]++;
+        }
+        int[][] parts = new int[components.length][];
+        for (int c = 0; c < components.length; c++) {
+            parts[c] = new int[counts[c]];
+            counts[c] = 0;
+        }
+        for (int v: initial) {
+            int c = componentOf[v];
+            parts[c][counts[c]++] = components.length == 1 ? v : localId[v];
+        }
+        return parts;
+    }
+
+    // gambling is always the answer
+    // the strategy decides how to search, the context runs its batches on the pool and keeps the incumbent,
+    // which always stays a valid dominating set (initially all the vertices), so stopping at any point is fine
+    // otherSize is what the rest of the graph adds to the total size reported to the listener, start is when the solve began
+    // initial is the warm start in the graph's ids, or null
+    private int[] gamble(Graph graph, long deadline, int targetSize, int lowerBound, int otherSize, long start, long seed, int[] initial) {
+        SearchContext context = new SearchContext(this, graph, deadline, Math.max(lowerBound, targetSize), otherSize, start, seed, listener, initial);
+        strategy.search(context);
+        return context.incumbent();
+    }
+
+    static boolean expired(long deadline) {
+        return deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0;
+    }
+
+    // splitmix64 finalizer over seed and index, gives independent seeds for the numbered streams
+    static long mix(long seed, long index) {
+        long z = seed + (index + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // one greedy construction followed by the local search, only returned if it beats bestSize (null otherwise)
+    // the construction is abandoned (ABANDONED is returned) once even the local search is unlikely to bring it below bestSize, or when the deadline passes
+    static int[] calculateSet(GreedyEngine engine, LocalSearch search, PointSet universe, int bestSize, long deadline) {
+        // Improved Greedy Algorithm with Weighted Selection, see GreedyEngine
+        int bound = bestSize == Integer.MAX_VALUE ? bestSize : bestSize + localSearchSlack(bestSize);
+        int count = engine.construct(universe, bound, deadline);
+        if (count == -1) {
+            return ABANDONED;
+        }
+        int[] dominatingSet = new int[count];
+        for (int i = 0; i < count; i++) {
+            dominatingSet[i] = engine.dominator(i);
+        }
+
+        // Post-processing with Local Search
+        count = search.improve(dominatingSet, count);
+        return count < bestSize ? Arrays.copyOf(dominatingSet, count) : null;
+    }
+
+    // how far above the incumbent a construction may go and still be worth handing to the local search
+    static int localSearchSlack(int bestSize) {
+        return Math.max(1, bestSize >> 5);
+    }
+
+    <T> List<Future<T>> invokeAll(List<Callable<T>> tasks) {
+        try {
+            return pool.invokeAll(tasks);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package algorithms;
+
+// structured events of a Solver, every method defaults to doing nothing
+// improved is called from the worker threads as soon as an improvement is published, so implementations have to be thread safe
+// a solver without a listener skips all the bookkeeping behind these events
+public interface SolverListener {
+    // degreeHistogram[d] is the number of vertices with d neighbors (the closed neighborhood minus the vertex itself)
+    record GraphStats(int vertexCount, long edgeCount, int maxDegree, double averageDegree, int[] degreeHistogram, long buildNanos) {
+    }
+
+    // one batch of the search strategy, allocatedBytes is what the worker threads allocated during it (-1 if the jvm can't tell)
+    record RoundStats(int round, int threads, long constructions, long abandonedConstructions, long nanos, long allocatedBytes, int bestSize) {
+        public double constructionsPerSecondPerThread() {
+            return nanos == 0 ? 0 : constructions * 1e9 / nanos / threads;
+        }
+    }
+
+    default void graphBuilt(GraphStats stats) {
+    }
+
+    // a solve of a graph with vertexCount vertices begins, the events up to its solveFinished belong to it
+    // (the graphBuilt events of a batch all come before its solves, see Solver.buildGraphs)
+    default void solveStarted(int vertexCount) {
+    }
+
+    default void roundFinished(RoundStats stats) {
+    }
+
+    // size of the whole current best set, elapsedNanos counted from the start of the solve
+    default void improved(int size, long elapsedNanos) {
+    }
+
+    default void solveFinished(int size, int lowerBound, long elapsedNanos) {
+    }
+}
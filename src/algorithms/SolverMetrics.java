@@ -0,0 +1,191 @@
+package algorithms;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// listener that aggregates the solver events into counters and registers them as an mbean,
+// e.g. solver.setListener(new SolverMetrics().register("main")) and then look at algorithms:type=SolverMetrics,name=main in jconsole
+public class SolverMetrics implements SolverListener, SolverMetricsMBean {
+    private static final int TIMELINE_LIMIT = 1024;
+
+    private final LongAdder solves = new LongAdder();
+    private final LongAdder rounds = new LongAdder();
+    private final LongAdder constructions = new LongAdder();
+    private final LongAdder abandoned = new LongAdder();
+    private final LongAdder allocatedBytes = new LongAdder();
+    private volatile double lastRoundConstructionsPerSecondPerThread;
+    // constructions and thread time (round nanos times threads) of the current or last solve
+    private final LongAdder solveConstructions = new LongAdder();
+    private final LongAdder solveThreadNanos = new LongAdder();
+    private volatile GraphStats lastGraph;
+    private volatile int lastBestSize;
+    private volatile int lastLowerBound;
+    private volatile long lastSolveNanos;
+    private final ArrayDeque<String> timeline = new ArrayDeque<>();
+
+    public SolverMetrics register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName("algorithms:type=SolverMetrics,name=" + ObjectName.quote(name)));
+        } catch (JMException e) {
+            throw new IllegalStateException("unable to register the solver metrics as " + name, e);
+        }
+        return this;
+    }
+
+    @Override
+    public void graphBuilt(GraphStats stats) {
+        lastGraph = stats;
+    }
+
+    // the timeline and the rate are per solve, a batch builds all of its graphs before the first one is solved
+    @Override
+    public void solveStarted(int vertexCount) {
+        solveConstructions.reset();
+        solveThreadNanos.reset();
+        synchronized (timeline) {
+            timeline.clear();
+        }
+    }
+
+    @Override
+    public void roundFinished(RoundStats stats) {
+        rounds.increment();
+        constructions.add(stats.constructions());
+        abandoned.add(stats.abandonedConstructions());
+        if (stats.allocatedBytes() > 0) {
+            allocatedBytes.add(stats.allocatedBytes());
+        }
+        solveConstructions.add(stats.constructions());
+        solveThreadNanos.add(stats.nanos() * stats.threads());
+        lastRoundConstructionsPerSecondPerThread = stats.constructionsPerSecondPerThread();
+    }
+
+    @Override
+    public void improved(int size, long elapsedNanos) {
+        synchronized (timeline) {
+            if (timeline.size() == TIMELINE_LIMIT) {
+                timeline.removeFirst();
+            }
+            timeline.addLast(elapsedNanos / 1_000_000 + ":" + size);
+        }
+        lastBestSize = size;
+    }
+
+    @Override
+    public void solveFinished(int size, int lowerBound, long elapsedNanos) {
+        solves.increment();
+        lastBestSize = size;
+        lastLowerBound = lowerBound;
+        lastSolveNanos = elapsedNanos;
+    }
+
+    @Override
+    public long getSolveCount() {
+        return solves.sum();
+    }
+
+    @Override
+    public long getRoundCount() {
+        return rounds.sum();
+    }
+
+    @Override
+    public long getConstructionCount() {
+        return constructions.sum();
+    }
+
+    @Override
+    public long getAbandonedConstructionCount() {
+        return abandoned.sum();
+    }
+
+    @Override
+    public long getAllocatedBytes() {
+        return allocatedBytes.sum();
+    }
+
+    @Override
+    public double getLastRoundConstructionsPerSecondPerThread() {
+        return lastRoundConstructionsPerSecondPerThread;
+    }
+
+    @Override
+    public double getSolveConstructionsPerSecondPerThread() {
+        long nanos = solveThreadNanos.sum();
+        return nanos == 0 ? 0 : solveConstructions.sum() * 1e9 / nanos;
+    }
+
+    @Override
+    public double getLastGraphBuildMillis() {
+        GraphStats graph = lastGraph;
+        return graph == null ? 0 : graph.buildNanos() / 1e6;
+    }
+
+    @Override
+    public int getLastVertexCount() {
+        GraphStats graph = lastGraph;
+        return graph == null ? 0 : graph.vertexCount();
+    }
+
+    @Override
+    public long getLastEdgeCount() {
+        GraphStats graph = lastGraph;
+        return graph == null ? 0 : graph.edgeCount();
+    }
+
+    @Override
+    public int getLastMaxDegree() {
+        GraphStats graph = lastGraph;
+        return graph == null ? 0 : graph.maxDegree();
+    }
+
+    @Override
+    public double getLastAverageDegree() {
+        GraphStats graph = lastGraph;
+        return graph == null ? 0 : graph.averageDegree();
+    }
+
+    @Override
+    public int getLastBestSize() {
+        return lastBestSize;
+    }
+
+    @Override
+    public int getLastLowerBound() {
+        return lastLowerBound;
+    }
+
+    @Override
+    public double getLastSolveMillis() {
+        return lastSolveNanos / 1e6;
+    }
+
+    @Override
+    public String[] getImprovementTimeline() {
+        synchronized (timeline) {
+            return timeline.toArray(new String[0]);
+        }
+    }
+
+    @Override
+    public void reset() {
+        solves.reset();
+        rounds.reset();
+        constructions.reset();
+        abandoned.reset();
+        allocatedBytes.reset();
+        lastRoundConstructionsPerSecondPerThread = 0;
+        solveConstructions.reset();
+        solveThreadNanos.reset();
+        lastGraph = null;
+        lastBestSize = 0;
+        lastLowerBound = 0;
+        lastSolveNanos = 0;
+        synchronized (timeline) {
+            timeline.clear();
+        }
+    }
+}
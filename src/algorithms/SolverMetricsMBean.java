@@ -0,0 +1,39 @@
+package algorithms;
+
+public interface SolverMetricsMBean {
+    long getSolveCount();
+
+    long getRoundCount();
+
+    long getConstructionCount();
+
+    long getAbandonedConstructionCount();
+
+    long getAllocatedBytes();
+
+    double getLastRoundConstructionsPerSecondPerThread();
+
+    // over all the rounds of the current or last solve, what itPerThread is tuned with
+    double getSolveConstructionsPerSecondPerThread();
+
+    double getLastGraphBuildMillis();
+
+    int getLastVertexCount();
+
+    long getLastEdgeCount();
+
+    int getLastMaxDegree();
+
+    double getLastAverageDegree();
+
+    int getLastBestSize();
+
+    int getLastLowerBound();
+
+    double getLastSolveMillis();
+
+    // "millis:size" entries of the current or last solve
+    String[] getImprovementTimeline();
+
+    void reset();
+}
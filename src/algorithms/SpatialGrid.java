@@ -0,0 +1,69 @@
+package algorithms;
+
+// uniform grid over the points with cells at least edgeThreshold wide, so every neighbor of a point
+// lies in its own cell or one of the 8 surrounding ones
+// cell contents are stored counting-sort style: the ids of cell c are cellPoints[cellStart[c] .. cellStart[c+1])
+final class SpatialGrid {
+    // keep the cell array proportional to the number of points, sparse inputs just get bigger cells
+    private static final int MAX_CELLS_PER_POINT = 4;
+
+    final int cellSize;
+    final int minX, minY;
+    final int cols, rows;
+    final int[] cellStart;
+    final int[] cellPoints;
+
+    SpatialGrid(int[] xs, int[] ys, int count, int edgeThreshold) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        if (count == 0) {
+            minX = minY = maxX = maxY = 0;
+        }
+        long width = (long) maxX - minX + 1, height = (long) maxY - minY + 1;
+        long cellSize = Math.max(1, edgeThreshold);
+        long maxCells = Math.max(1, (long) count * MAX_CELLS_PER_POINT);
+        while (((width + cellSize - 1) / cellSize) * ((height + cellSize - 1) / cellSize) > maxCells) {
+            cellSize <<= 1;
+        }
+        this.cellSize = (int) cellSize;
+        this.minX = minX;
+        this.minY = minY;
+        this.cols = (int) ((width + cellSize - 1) / cellSize);
+        this.rows = (int) ((height + cellSize - 1) / cellSize);
+
+        // counting sort of the ids by cell
+        cellStart = new int[cols * rows + 1];
+        int[] cellOf = new int[count];
+        for (int i = 0; i < count; i++) {
+            cellOf[i] = cellIndex(xs[i], ys[i]);
+            cellStart[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cols * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        cellPoints = new int[count];
+        int[] fill = new int[cols * rows];
+        for (int i = 0; i < count; i++) {
+            int c = cellOf[i];
+            cellPoints[cellStart[c] + fill[c]++] = i;
+        }
+    }
+
+    int cellX(int x) {
+        return (x - minX) / cellSize;
+    }
+
+    int cellY(int y) {
+        return (y - minY) / cellSize;
+    }
+
+    int cellIndex(int x, int y) {
+        return cellX(x) + cellY(y) * cols;
+    }
+}
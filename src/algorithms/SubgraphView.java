@@ -0,0 +1,50 @@
+package algorithms;
+
+// a union of components of a graph seen with local ids, vertex i is vertices[i] of the parent, without copying anything:
+// the neighbor lists stay where they are (start and end are positions in the parent), only the targets are translated
+// through localId, so the solver can split an off-heap graph into its components and the adjacency stays off the heap
+final class SubgraphView extends Graph {
+    private final Graph parent;
+    private final int[] vertices;
+    private final int[] localId;
+    private final int targetCount;
+
+    // same contract as Graph.subgraph: vertices is closed under neighborhoods, localId is shared by disjoint views
+    SubgraphView(Graph parent, int[] vertices, int[] localId) {
+        super(vertices.length);
+        this.parent = parent;
+        this.vertices = vertices;
+        this.localId = localId;
+        int count = 0;
+        for (int i = 0; i < vertices.length; i++) {
+            localId[vertices[i]] = i;
+            count += parent.degree(vertices[i]);
+        }
+        targetCount = count;
+    }
+
+    @Override
+    int targetCount() {
+        return targetCount;
+    }
+
+    @Override
+    int start(int v) {
+        return parent.start(vertices[v]);
+    }
+
+    @Override
+    int end(int v) {
+        return parent.end(vertices[v]);
+    }
+
+    @Override
+    int degree(int v) {
+        return parent.degree(vertices[v]);
+    }
+
+    @Override
+    int target(int i) {
+        return localId[parent.target(i)];
+    }
+}
@@ -0,0 +1,256 @@
+package algorithms;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// divide and conquer for instances too big for one gamble search (a million points and more)
+// the plane is cut into square tiles (the cells of a SpatialGrid), every tile is solved on its own on a fork join pool
+// with a few greedy constructions and the local search, over its points plus a strip of width edgeThreshold around it,
+// so every point of the tile has all of its neighbors there
+// of each tile's solution only the dominators covering a point of the tile itself are kept, the union of those is
+// dominating already, then the duplicated work along the tile borders is pruned by one local search over the whole graph
+// (after a repair pass that adds any uncovered point, which only matters if a tile ran out of time)
+//
+// tilePoints is the average number of points per tile, tiles are never narrower than the edge threshold
+public final class TiledSolver {
+    private final ForkJoinPool pool;
+    private final int tilePoints;
+    private final int constructionsPerTile;
+    private final boolean deterministic;
+    private final long seed;
+    private volatile GraphStorage graphStorage = GraphStorage.heap();
+    private volatile SolverListener listener;
+
+    // common pool, about 20000 points and 32 constructions per tile
+    public TiledSolver() {
+        this(ForkJoinPool.commonPool(), 20_000, 32);
+    }
+
+    public TiledSolver(ForkJoinPool pool, int tilePoints, int constructionsPerTile) {
+        this(pool, tilePoints, constructionsPerTile, false, 0);
+    }
+
+    // every tile breaks its ties with a stream derived from seed and its position, so the result is reproducible
+    public TiledSolver(ForkJoinPool pool, int tilePoints, int constructionsPerTile, long seed) {
+        this(pool, tilePoints, constructionsPerTile, true, seed);
+    }
+
+    private TiledSolver(ForkJoinPool pool, int tilePoints, int constructionsPerTile, boolean deterministic, long seed) {
+        if (tilePoints < 1) throw new IllegalArgumentException("tilePoints must be at least 1, got " + tilePoints);
+        if (constructionsPerTile < 1) throw new IllegalArgumentException("constructionsPerTile must be at least 1, got " + constructionsPerTile);
+        this.pool = pool;
+        this.tilePoints = tilePoints;
+        this.constructionsPerTile = constructionsPerTile;
+        this.deterministic = deterministic;
+        this.seed = seed;
+    }
+
+    public int getTilePoints() {
+        return tilePoints;
+    }
+
+    public int getConstructionsPerTile() {
+        return constructionsPerTile;
+    }
+
+    public GraphStorage getGraphStorage() {
+        return graphStorage;
+    }
+
+    // where the graph of the whole instance (the stitching and the final local search) is kept, the tiles are small
+    // enough for the heap either way
+    public void setGraphStorage(GraphStorage graphStorage) {
+        if (graphStorage == null) throw new IllegalArgumentException("graphStorage must not be null");
+        this.graphStorage = graphStorage;
+    }
+
+    public SolverListener getListener() {
+        return listener;
+    }
+
+    // gets the graphBuilt event of the graph of the whole instance, null to switch it off again
+    public void setListener(SolverListener listener) {
+        this.listener = listener;
+    }
+
+    // point i is (xs[i], ys[i]), the result holds indices into xs/ys
+    public int[] solve(int[] xs, int[] ys, int edgeThreshold) {
+        return solve(xs, ys, edgeThreshold, Solver.NO_DEADLINE);
+    }
+
+    // the tiles stop constructing once the budget is used up, the stitching and the final local search still run after it
+    public int[] solve(int[] xs, int[] ys, int edgeThreshold, Duration budget) {
+        return solve(xs, ys, edgeThreshold, System.nanoTime() + budget.toNanos());
+    }
+
+    private int[] solve(int[] xs, int[] ys, int edgeThreshold, long deadline) {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        int n = xs.length;
+        if (n == 0) return new int[0];
+        SpatialGrid tiles = new SpatialGrid(xs, ys, n, tileSide(xs, ys, edgeThreshold));
+        int tileCount = tiles.cols * tiles.rows;
+        int[][] kept = new int[tileCount][];
+        pool.invoke(new TileRange(tiles, xs, ys, edgeThreshold, deadline, kept, 0, tileCount));
+
+        long buildStart = System.nanoTime();
+        Graph graph = graphStorage.build(xs, ys, n, edgeThreshold);
+        Solver.reportGraph(listener, graph, System.nanoTime() - buildStart);
+        try {
+            return stitch(graph, kept, n);
+        } finally {
+            graph.release();
+        }
+    }
+
+    // a point can be kept by several tiles
+    private static int[] stitch(Graph graph, int[][] kept, int n) {
+        PointSet chosen = new PointSet(n);
+        PointSet covered = new PointSet(n);
+        int[] set = new int[n];
+        int count = 0;
+        for (int[] tile: kept) {
+            if (tile == null) continue;
+            for (int v: tile) {
+                if (chosen.add(v)) {
+                    set[count++] = v;
+                    covered.orNeighborhood(graph, v);
+                }
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            if (!covered.contains(v)) {
+                set[count++] = v;
+                covered.orNeighborhood(graph, v);
+            }
+        }
+        count = new LocalSearch(graph).improve(set, count);
+        return Arrays.copyOf(set, count);
+    }
+
+    // side of a tile holding about tilePoints points if they were spread evenly over the bounding box
+    private int tileSide(int[] xs, int[] ys, int edgeThreshold) {
+        int minX = Integer.MAX_VALUE, minY = Integer.MAX_VALUE;
+        int maxX = Integer.MIN_VALUE, maxY = Integer.MIN_VALUE;
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        double area = ((double) maxX - minX + 1) * ((double) maxY - minY + 1);
+        double side = Math.sqrt(area * tilePoints / xs.length);
+        return (int) Math.min(Integer.MAX_VALUE >> 2, Math.max(Math.max(1, edgeThreshold), Math.ceil(side)));
+    }
+
+    // halves the range of tiles until it's a single one
+    private final class TileRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final SpatialGrid tiles;
+        private final int[] xs, ys;
+        private final int edgeThreshold;
+        private final long deadline;
+        private final int[][] kept;
+        private final int from, to;
+
+        TileRange(SpatialGrid tiles, int[] xs, int[] ys, int edgeThreshold, long deadline, int[][] kept, int from, int to) {
+            this.tiles = tiles;
+            this.xs = xs;
+            this.ys = ys;
+            this.edgeThreshold = edgeThreshold;
+            this.deadline = deadline;
+            this.kept = kept;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TileRange(tiles, xs, ys, edgeThreshold, deadline, kept, from, mid),
+                        new TileRange(tiles, xs, ys, edgeThreshold, deadline, kept, mid, to));
+            } else if (tiles.cellStart[from] < tiles.cellStart[from + 1]) {
+                kept[from] = solveTile(from);
+            }
+        }
+
+        // global ids of the tile's dominators that cover at least one point of the tile
+        private int[] solveTile(int tile) {
+            int cx = tile % tiles.cols, cy = tile / tiles.cols;
+            long x0 = tiles.minX + (long) cx * tiles.cellSize - edgeThreshold, x1 = tiles.minX + (long) (cx + 1) * tiles.cellSize + edgeThreshold;
+            long y0 = tiles.minY + (long) cy * tiles.cellSize - edgeThreshold, y1 = tiles.minY + (long) (cy + 1) * tiles.cellSize + edgeThreshold;
+
+            // the tile's own points first, so they are the local ids 0 .. core-1, then the strip around it
+            int core = tiles.cellStart[tile + 1] - tiles.cellStart[tile];
+            int capacity = 0;
+            for (int ny = Math.max(0, cy - 1); ny <= Math.min(tiles.rows - 1, cy + 1); ny++) {
+                for (int nx = Math.max(0, cx - 1); nx <= Math.min(tiles.cols - 1, cx + 1); nx++) {
+                    int c = nx + ny * tiles.cols;
+                    capacity += tiles.cellStart[c + 1] - tiles.cellStart[c];
+                }
+            }
+            int[] globalId = new int[capacity];
+            System.arraycopy(tiles.cellPoints, tiles.cellStart[tile], globalId, 0, core);
+            int count = core;
+            for (int ny = Math.max(0, cy - 1); ny <= Math.min(tiles.rows - 1, cy + 1); ny++) {
+                for (int nx = Math.max(0, cx - 1); nx <= Math.min(tiles.cols - 1, cx + 1); nx++) {
+                    int c = nx + ny * tiles.cols;
+                    if (c == tile) continue;
+                    for (int k = tiles.cellStart[c]; k < tiles.cellStart[c + 1]; k++) {
+                        int p = tiles.cellPoints[k];
+                        if (xs[p] >= x0 && xs[p] <= x1 && ys[p] >= y0 && ys[p] <= y1) {
+                            globalId[count++] = p;
+                        }
+                    }
+                }
+            }
+            int[] localXs = new int[count], localYs = new int[count];
+            for (int i = 0; i < count; i++) {
+                localXs[i] = xs[globalId[i]];
+                localYs[i] = ys[globalId[i]];
+            }
+
+            Graph graph = Graph.build(localXs, localYs, count, edgeThreshold);
+            GreedyEngine engine = new GreedyEngine(graph);
+            LocalSearch search = new LocalSearch(graph);
+            if (deterministic) {
+                engine.seed(Solver.mix(seed, tile));
+            }
+            PointSet universe = new PointSet(count);
+            universe.fill();
+            int[] best = null;
+            for (int j = 0; j < constructionsPerTile; j++) {
+                int[] res = Solver.calculateSet(engine, search, universe, best == null ? Integer.MAX_VALUE : best.length, deadline);
+                // a construction that finished right before the deadline still counts
+                if (res != null && res != Solver.ABANDONED) {
+                    best = res;
+                }
+                if (Solver.expired(deadline)) {
+                    break;
+                }
+            }
+            if (best == null) {
+                // out of time before the first construction, every point of the tile dominates itself
+                best = new int[core];
+                for (int i = 0; i < core; i++) {
+                    best[i] = i;
+                }
+            }
+
+            int[] res = new int[best.length];
+            int size = 0;
+            for (int d: best) {
+                for (int i = graph.start(d), end = graph.end(d); i < end; i++) {
+                    if (graph.target(i) < core) {
+                        res[size++] = globalId[d];
+                        break;
+                    }
+                }
+            }
+            return Arrays.copyOf(res, size);
+        }
+    }
+}
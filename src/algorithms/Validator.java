@@ -0,0 +1,95 @@
+package algorithms;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+// checks that a set of dominators covers a point set, with the solver's semantics: p is covered by d iff distance(p, d) < edgeThreshold
+// the dominators go into a SpatialGrid, so every point only looks at the dominators of the 3x3 cells around it,
+// which makes a check about O(n + |D|) instead of O(n * |D|)
+// the points are checked in chunks on the common fork join pool, small inputs stay on the calling thread
+public final class Validator {
+    private static final int CHUNK_POINTS = 1 << 14;
+
+    private Validator() {
+    }
+
+    // indices of the points (xs[i], ys[i]) that no dominator (domXs[j], domYs[j]) covers, in increasing order
+    public static int[] uncovered(int[] xs, int[] ys, int[] domXs, int[] domYs, int edgeThreshold) {
+        if (xs.length != ys.length) throw new IllegalArgumentException("xs and ys differ in length: " + xs.length + " vs " + ys.length);
+        if (domXs.length != domYs.length) throw new IllegalArgumentException("domXs and domYs differ in length: " + domXs.length + " vs " + domYs.length);
+        SpatialGrid grid = new SpatialGrid(domXs, domYs, domXs.length, edgeThreshold);
+        int chunks = (xs.length + CHUNK_POINTS - 1) / CHUNK_POINTS;
+        IntStream range = IntStream.range(0, chunks);
+        int[][] results = new int[chunks][];
+        (chunks > 1 ? range.parallel() : range).forEach(chunk -> {
+            int from = chunk * CHUNK_POINTS, to = Math.min(xs.length, from + CHUNK_POINTS);
+            int[] res = new int[to - from];
+            int count = 0;
+            for (int p = from; p < to; p++) {
+                if (!covered(grid, domXs, domYs, xs[p], ys[p], edgeThreshold)) {
+                    res[count++] = p;
+                }
+            }
+            results[chunk] = Arrays.copyOf(res, count);
+        });
+        int total = 0;
+        for (int[] res: results) {
+            total += res.length;
+        }
+        int[] uncovered = new int[total];
+        total = 0;
+        for (int[] res: results) {
+            System.arraycopy(res, 0, uncovered, total, res.length);
+            total += res.length;
+        }
+        return uncovered;
+    }
+
+    // same with the dominators given as indices into xs/ys, like the results of the primitive entry points
+    public static int[] uncovered(int[] xs, int[] ys, int[] dominators, int edgeThreshold) {
+        int[] domXs = new int[dominators.length], domYs = new int[dominators.length];
+        for (int i = 0; i < dominators.length; i++) {
+            domXs[i] = xs[dominators[i]];
+            domYs[i] = ys[dominators[i]];
+        }
+        return uncovered(xs, ys, domXs, domYs, edgeThreshold);
+    }
+
+    // indices into points
+    public static int[] uncovered(ArrayList<java.awt.Point> domSet, ArrayList<java.awt.Point> points, int edgeThreshold) {
+        int[] xs = new int[points.size()], ys = new int[points.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = points.get(i).x;
+            ys[i] = points.get(i).y;
+        }
+        int[] domXs = new int[domSet.size()], domYs = new int[domSet.size()];
+        for (int i = 0; i < domXs.length; i++) {
+            domXs[i] = domSet.get(i).x;
+            domYs[i] = domSet.get(i).y;
+        }
+        return uncovered(xs, ys, domXs, domYs, edgeThreshold);
+    }
+
+    public static boolean isValid(ArrayList<java.awt.Point> domSet, ArrayList<java.awt.Point> points, int edgeThreshold) {
+        return uncovered(domSet, points, edgeThreshold).length == 0;
+    }
+
+    private static boolean covered(SpatialGrid grid, int[] domXs, int[] domYs, int x, int y, int edgeThreshold) {
+        // the point may lie outside of the dominators' bounding box, so the cell is computed with floorDiv and clamped
+        long cx = Math.floorDiv((long) x - grid.minX, grid.cellSize), cy = Math.floorDiv((long) y - grid.minY, grid.cellSize);
+        for (long ny = Math.max(0, cy - 1); ny <= Math.min(grid.rows - 1, cy + 1); ny++) {
+            for (long nx = Math.max(0, cx - 1); nx <= Math.min(grid.cols - 1, cx + 1); nx++) {
+                int c = (int) (nx + ny * grid.cols);
+                for (int i = grid.cellStart[c]; i < grid.cellStart[c + 1]; i++) {
+                    int d = grid.cellPoints[i];
+                    if (Point2D.distance(x, y, domXs[d], domYs[d]) < edgeThreshold) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+}